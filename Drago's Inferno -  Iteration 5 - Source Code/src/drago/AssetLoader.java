@@ -0,0 +1,231 @@
+/*
+ * AssetLoader.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+/**
+ * Decodes the game's sprites on a few threads while the game starts.
+ *
+ * When started, the loader queues every GIF of the image folder to be
+ * decoded on a small pool of threads. The sprite loaders (GamePanel's
+ * constructor, and the 'loadSprites' methods of the entities) read
+ * their images through 'read' as before, in their own order, so the
+ * sprites are added to the atlas in the same order and get the same
+ * ids as ever; they just find most of the images already decoded. An
+ * image not yet started is decoded on the reader's own thread rather
+ * than waited for, and one not in the folder is read as usual.
+ *
+ * If the folder holds a sprite pack (see SpritePack), the images it
+ * holds as they are now are taken from it instead, and only the rest
+ * (those changed since it was made, or new) are decoded.
+ *
+ * The time each image took to decode, and how long its reader waited
+ * for it, are kept for the report printed by 'report'; the number of
+ * images decoded so far gives the progress of the loading.
+ *
+ */
+public class AssetLoader
+{
+    // Threads decoding, by default.
+    public static final int DEFAULT_THREADS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    // The loader images are read through, while one is running, and
+    //   the pack of the last loader started, for images read after it
+    //   finishes (e.g. sprite sets loaded late, see SpriteSets).
+    private static volatile AssetLoader active = null;
+    private static volatile SpritePack lastPack = null;
+
+    // An image decoded, and the time it took, in nanoseconds.
+    private static class Decoded
+    {
+        final BufferedImage image;
+        final long nanos;
+
+        Decoded(BufferedImage image, long nanos) {
+            this.image = image;
+            this.nanos = nanos;
+        }
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final SpritePack pack;
+    private final long startNanos;
+    private long endNanos = 0;
+
+    // The images queued, by file name (without the folder), the
+    //   number of images to load (queued or in the pack), and of those
+    //   loaded so far.
+    private final HashMap<String, Future<Decoded>> queued = new HashMap<String, Future<Decoded>>();
+    private final int total;
+    private volatile int decoded = 0;
+
+    // The images read, in order, with the time each took to decode and
+    //   the time its reader waited (game thread only).
+    private final ArrayList<String> readNames = new ArrayList<String>();
+    private final ArrayList<Long> readDecode = new ArrayList<Long>();
+    private final ArrayList<Long> readWait = new ArrayList<Long>();
+    private int decodedHere = 0;
+    private int fromPack = 0;
+
+    // Start decoding the GIFs of a folder (those not in its pack) on
+    //   the given number of threads, and read images through this
+    //   loader until 'finish'.
+    public static AssetLoader start(File folder, int threads) {
+        AssetLoader loader = new AssetLoader(folder, threads);
+        active = loader;
+        lastPack = loader.pack;
+        return loader;
+    }
+
+    // Read an image: through the running loader, if any (on the
+    //   thread that started it), or else from the last pack, or
+    //   directly.
+    public static BufferedImage read(File file) throws IOException {
+        AssetLoader loader = active;
+        if (loader != null) return loader.take(file);
+        SpritePack pack = lastPack;
+        if (pack != null) {
+            BufferedImage image = pack.get(file);
+            if (image != null) return image;
+        }
+        return ImageIO.read(file);
+    }
+
+    // Constructor (see 'start').
+    private AssetLoader(File folder, int threads) {
+        startNanos = System.nanoTime();
+        File[] files = folder.listFiles();
+        if (files == null) files = new File[0];
+        Arrays.sort(files);
+        pack = SpritePack.open(new File(folder, SpritePack.FILE_NAME));
+
+        pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, files.length)),
+                new ThreadFactory() {
+                    private int count = 0;
+                    public synchronized Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "AssetLoader-" + (count++));
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        int n = 0;
+        for (int i = 0; i < files.length; ++i) {
+            final File file = files[i];
+            if (!file.getName().toLowerCase().endsWith(".gif")) continue;
+            ++n;
+            if (pack != null && pack.has(file)) continue;
+            queued.put(file.getName(), pool.submit(new Callable<Decoded>() {
+                public Decoded call() throws IOException {
+                    Decoded d = decode(file);
+                    synchronized (AssetLoader.this) { ++decoded; }
+                    return d;
+                }
+            }));
+        }
+        total = n;
+        decoded = n - queued.size();
+    }
+
+    // Number of images to load, and of those loaded so far.
+    public int getTotal() { return total; }
+    public int getDecoded() { return decoded; }
+
+    // Get an image, decoded ahead if it was queued.
+    private BufferedImage take(File file) throws IOException {
+        long start = System.nanoTime();
+        Future<Decoded> f = queued.remove(SpritePack.baseName(file.getPath()));
+        BufferedImage packed = (pack != null) ? pack.get(file) : null;
+        Decoded d;
+        if (packed != null) {
+            d = new Decoded(packed, 0);
+            ++fromPack;
+        }
+        else if (f == null || (!f.isDone() && f.cancel(false))) {
+            // Not queued, or not started yet: decode it here.
+            d = decode(file);
+            if (f != null) {
+                synchronized (this) { ++decoded; }
+            }
+            ++decodedHere;
+        }
+        else {
+            try {
+                d = f.get();
+            }
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException)e.getCause();
+                throw new IOException(e.getCause());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+        readNames.add(file.getPath());
+        readDecode.add(d.nanos);
+        readWait.add(System.nanoTime() - start);
+        return d.image;
+    }
+
+    // Stop reading images through this loader, and drop those never
+    //   read.
+    public void finish() {
+        if (active == this) active = null;
+        for (Future<Decoded> f : queued.values()) f.cancel(false);
+        pool.shutdown();
+        endNanos = System.nanoTime();
+    }
+
+    // Images queued but never read (see 'finish'), and images taken
+    //   from the pack.
+    public int getUnused() { return queued.size(); }
+    public int getFromPack() { return fromPack; }
+
+    // Print the time taken by loading and, if asked, by each image.
+    public void report(PrintStream out, boolean perAsset) {
+        long decodeTotal = 0;
+        long waitTotal = 0;
+        for (int i = 0; i < readNames.size(); ++i) {
+            decodeTotal += readDecode.get(i);
+            waitTotal += readWait.get(i);
+        }
+        out.println(String.format("Loaded %d images in %.1f ms on %d thread(s):"
+                + " %.1f ms decoding, %.1f ms waited for; %d from the pack,"
+                + " %d decoded on the game thread, %d unused",
+                readNames.size(), (endNanos - startNanos) / 1e6, pool.getMaximumPoolSize(),
+                decodeTotal / 1e6, waitTotal / 1e6, fromPack, decodedHere, getUnused()));
+        if (!perAsset) return;
+        for (int i = 0; i < readNames.size(); ++i) {
+            out.println(String.format("  %-40s %7.2f ms decode %7.2f ms wait",
+                    SpritePack.baseName(readNames.get(i)), readDecode.get(i) / 1e6, readWait.get(i) / 1e6));
+        }
+    } // end method report
+
+    // Decode an image, timing it.
+    private static Decoded decode(File file) throws IOException {
+        long start = System.nanoTime();
+        BufferedImage image = ImageIO.read(file);
+        if (image == null) throw new IOException("not an image (" + file.getPath() + ")");
+        return new Decoded(image, System.nanoTime() - start);
+    }
+
+} // end class AssetLoader
@@ -0,0 +1,240 @@
+/*
+ * AudioEngine.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Plays the game's sound effects through a single audio line.
+ *
+ * All the sounds of the sound folder are decoded into 16-bit PCM
+ * samples when the engine is opened, so playing one reads no file.
+ * A mixer thread of its own adds up the sounds playing (the voices)
+ * a block at a time and writes the block to the line, which paces
+ * the thread. At most a given number of voices play at once; a sound
+ * started when all are taken replaces the voice that started first.
+ *
+ * Sounds are started with 'play', which only puts the sound's number
+ * in a ring read by the mixer thread, so it never waits (the sound is
+ * dropped if the ring is full). As with InputQueue, exactly one thread
+ * may call 'play' (the game loop).
+ *
+ */
+public class AudioEngine
+{
+    // Default number of voices that play at once.
+    public static final int DEFAULT_VOICES = 8;
+
+    // Format the sounds are decoded to and mixed in: 22050 Hz, 16-bit,
+    //   mono, as the game's sounds are recorded.
+    private static final AudioFormat FORMAT = new AudioFormat(22050f, 16, 1, true, false);
+
+    // Frames mixed at a time (about 23 ms), and blocks the line holds.
+    private static final int BLOCK_FRAMES = 512;
+    private static final int LINE_BLOCKS = 3;
+
+    // Size of the ring of sounds to start.
+    private static final int RING_SIZE = 64;
+
+    // The sounds, by file name, and their samples.
+    private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+    private final short[][] sounds;
+
+    // The voices playing (mixer thread only): each one's sound, its
+    //   next sample, and when it was started (the lowest is the one
+    //   replaced when all are taken).
+    private final int maxVoices;
+    private final int[] voiceSound;
+    private final int[] voicePos;
+    private final long[] voiceStarted;
+    private int numVoices = 0;
+    private long started = 0;
+
+    // The ring of sounds to start: the game loop only writes 'tail',
+    //   the mixer thread only 'head'.
+    private final int[] ring = new int[RING_SIZE];
+    private final AtomicLong head = new AtomicLong(0);
+    private final AtomicLong tail = new AtomicLong(0);
+    private volatile long dropped = 0;
+    private volatile long stolen = 0;
+
+    private final SourceDataLine line;
+    private final Thread mixer;
+    private volatile boolean running = true;
+
+    // Open an engine with the sounds of a folder, or get null if there
+    //   is no audio line to play them on (the game is then silent).
+    public static AudioEngine open(File folder, int maxVoices) {
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, BLOCK_FRAMES * 2 * LINE_BLOCKS);
+        }
+        catch (Exception e) {
+            System.out.println("AudioEngine.open(): no audio line, playing no sound (" + e + ")");
+            return null;
+        }
+        return new AudioEngine(folder, maxVoices, line);
+    }
+
+    // Constructor (see 'open'): decode the sounds and start mixing.
+    private AudioEngine(File folder, int maxVoices, SourceDataLine line) {
+        this.maxVoices = maxVoices;
+        this.voiceSound = new int[maxVoices];
+        this.voicePos = new int[maxVoices];
+        this.voiceStarted = new long[maxVoices];
+        this.line = line;
+
+        File[] files = folder.listFiles();
+        if (files == null) files = new File[0];
+        Arrays.sort(files);
+        short[][] decoded = new short[files.length][];
+        int n = 0;
+        for (int i = 0; i < files.length; ++i) {
+            if (!files[i].getName().toLowerCase().endsWith(".wav")) continue;
+            short[] samples = decode(files[i]);
+            if (samples == null) continue;
+            ids.put(files[i].getName(), n);
+            decoded[n++] = samples;
+        }
+        sounds = Arrays.copyOf(decoded, n);
+
+        line.start();
+        mixer = new Thread(new Runnable() {
+            public void run() { mix(); }
+        }, "AudioEngine");
+        mixer.setDaemon(true);
+        mixer.setPriority(Thread.MAX_PRIORITY);
+        mixer.start();
+    }
+
+    // Start a sound by its file name (game loop only). Returns false if
+    //   there is no such sound, or the ring is full.
+    public boolean play(String name) {
+        Integer id = ids.get(name);
+        if (id == null) return false;
+        long t = tail.get();
+        if (t - head.get() >= RING_SIZE) {
+            ++dropped;
+            return false;
+        }
+        ring[(int)(t % RING_SIZE)] = id;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Number of sounds decoded, of sounds dropped with the ring full,
+    //   and of voices replaced to start another.
+    public int numSounds() { return sounds.length; }
+    public long getDropped() { return dropped; }
+    public long getStolen() { return stolen; }
+
+    // Stop the mixer thread and close the line.
+    public void close() {
+        running = false;
+        try {
+            mixer.join(1000);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        line.close();
+    }
+
+    // The mixer thread's loop.
+    private void mix() {
+        int[] sum = new int[BLOCK_FRAMES];
+        byte[] block = new byte[BLOCK_FRAMES * 2];
+        while (running) {
+
+            // Start the sounds queued since the last block.
+            long h = head.get();
+            long t = tail.get();
+            for (; h < t; ++h) start(ring[(int)(h % RING_SIZE)]);
+            head.lazySet(h);
+
+            // Add up the voices, dropping those that have ended.
+            Arrays.fill(sum, 0);
+            for (int v = 0; v < numVoices; ) {
+                short[] s = sounds[voiceSound[v]];
+                int pos = voicePos[v];
+                int end = Math.min(s.length - pos, BLOCK_FRAMES);
+                for (int i = 0; i < end; ++i) sum[i] += s[pos + i];
+                voicePos[v] = pos + end;
+                if (voicePos[v] >= s.length) remove(v);
+                else ++v;
+            }
+
+            // Clip to 16 bits and write out (little-endian).
+            for (int i = 0; i < BLOCK_FRAMES; ++i) {
+                int x = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sum[i]));
+                block[i << 1] = (byte)x;
+                block[(i << 1) + 1] = (byte)(x >> 8);
+            }
+            line.write(block, 0, block.length);
+        }
+    } // end method mix
+
+    // Start a voice for a sound, replacing the one started first if
+    //   all are taken (mixer thread only).
+    private void start(int sound) {
+        int v = numVoices;
+        if (v == maxVoices) {
+            v = 0;
+            for (int i = 1; i < numVoices; ++i) {
+                if (voiceStarted[i] < voiceStarted[v]) v = i;
+            }
+            ++stolen;
+        }
+        else ++numVoices;
+        voiceSound[v] = sound;
+        voicePos[v] = 0;
+        voiceStarted[v] = started++;
+    }
+
+    private void remove(int v) {
+        --numVoices;
+        voiceSound[v] = voiceSound[numVoices];
+        voicePos[v] = voicePos[numVoices];
+        voiceStarted[v] = voiceStarted[numVoices];
+    }
+
+    // Decode a sound file into samples in the mixing format, or get
+    //   null (and say so) if it cannot be.
+    private static short[] decode(File file) {
+        try {
+            AudioInputStream in = AudioSystem.getAudioInputStream(file);
+            try {
+                if (!in.getFormat().matches(FORMAT)) in = AudioSystem.getAudioInputStream(FORMAT, in);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = in.read(buf)) > 0) bytes.write(buf, 0, n);
+                byte[] b = bytes.toByteArray();
+                short[] samples = new short[b.length >> 1];
+                for (int i = 0; i < samples.length; ++i) {
+                    samples[i] = (short)((b[i << 1] & 0xff) | (b[(i << 1) + 1] << 8));
+                }
+                return samples;
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (Exception e) {
+            System.out.println("AudioEngine.decode(): skipping " + file.getPath() + " (" + e + ")");
+            return null;
+        }
+    } // end method decode
+
+} // end class AudioEngine
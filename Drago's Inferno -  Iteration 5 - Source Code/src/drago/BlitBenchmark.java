@@ -0,0 +1,116 @@
+/*
+ * BlitBenchmark.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+
+/**
+ * Measures how fast sprites are drawn as ImageIO loads them (one
+ * indexed-color image per GIF), and how fast the same sprites are
+ * drawn from a sprite atlas (see SpriteAtlas).
+ *
+ * Every GIF in the 'img' folder is drawn onto a 640x480 frame, over
+ * and over, each way in turn, and the sprites drawn per second are
+ * reported. The frame is a volatile (video memory) image when there
+ * is a screen, as in the game, or else an ordinary image.
+ *
+ * Usage: java drago.BlitBenchmark [-passes=N]
+ *
+ */
+public class BlitBenchmark
+{
+    // Passes over all the sprites, for warming up and for timing.
+    private static final int WARMUP_PASSES = 50;
+    private static int passes = 500;
+
+    public static void main(String[] args) {
+        for (int i = 0; i < args.length; ++i) {
+            if (args[i].startsWith("-passes=")) passes = Integer.parseInt(args[i].substring(8));
+            else error("main", "unknown option (" + args[i] + ")");
+        }
+
+        // Load the sprites.
+        File[] files = new File("img").listFiles();
+        if (files == null) error("main", "no 'img' folder here");
+        Arrays.sort(files);
+        ArrayList<BufferedImage> images = new ArrayList<BufferedImage>();
+        try {
+            for (int i = 0; i < files.length; ++i) {
+                if (!files[i].getName().toLowerCase().endsWith(".gif")) continue;
+                images.add(ImageIO.read(files[i]));
+            }
+        }
+        catch (IOException e) {
+            error("main", e.toString());
+        }
+        SpriteAtlas atlas = new SpriteAtlas(1024);
+        int[] ids = new int[images.size()];
+        for (int i = 0; i < ids.length; ++i) ids[i] = atlas.add(images.get(i));
+        System.out.println(images.size() + " sprites, " + atlas.numPages() + " atlas page(s)");
+
+        // Make the frame to draw on.
+        Image frame;
+        if (GraphicsEnvironment.isHeadless()) {
+            frame = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+            System.out.println("Drawing onto an image in memory (no screen)");
+        }
+        else {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            frame = gc.createCompatibleVolatileImage(640, 480);
+            System.out.println("Drawing onto a volatile image");
+        }
+
+        // Time each way, warmed up first.
+        run(frame, images, null, null, WARMUP_PASSES);
+        double separate = run(frame, images, null, null, passes);
+        run(frame, null, atlas, ids, WARMUP_PASSES);
+        double packed = run(frame, null, atlas, ids, passes);
+        System.out.println(String.format("Separate GIF images: %,.0f sprites/s", separate));
+        System.out.println(String.format("Sprite atlas:        %,.0f sprites/s (%.2fx)",
+                packed, packed / separate));
+    } // end method main
+
+    // Draw all the sprites the given number of times, either as the
+    //   given images or from the atlas, and get the sprites drawn per
+    //   second.
+    private static double run(Image frame, ArrayList<BufferedImage> images,
+                              SpriteAtlas atlas, int[] ids, int n) {
+        int count = (images != null) ? images.size() : ids.length;
+        long start = System.nanoTime();
+        for (int pass = 0; pass < n; ++pass) {
+            Graphics2D g2d = (Graphics2D)frame.getGraphics();
+            for (int i = 0; i < count; ++i) {
+                int x = (i * 37 + pass * 11) % 576;
+                int y = (i * 53 + pass * 7) % 416;
+                if (images != null) g2d.drawImage(images.get(i), x, y, null);
+                else atlas.draw(g2d, ids[i], x, y);
+            }
+            g2d.dispose();
+        }
+        if (frame instanceof VolatileImage) {
+            // Wait for the drawing to finish by reading a pixel back.
+            ((VolatileImage)frame).getSnapshot().getRGB(0, 0);
+        }
+        long nanos = System.nanoTime() - start;
+        return (double)count * n * 1000000000.0 / nanos;
+    }
+
+    private static void error(String function, String message) {
+        System.out.println("BlitBenchmark." + function + "(): " + message);
+        System.exit(1);
+    }
+
+} // end class BlitBenchmark
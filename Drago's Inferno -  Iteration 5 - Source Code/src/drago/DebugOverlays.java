@@ -0,0 +1,329 @@
+/*
+ * DebugOverlays.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import playfield.BSPLeaf;
+import playfield.BSPNode;
+import playfield.LeafProperty;
+import playfield.LineSeg;
+import playfield.Playfield;
+import playfield.Portal;
+import playfield.PortalListener;
+import playfield.PortalSquare;
+
+/**
+ * The debug overlays of a playfield (toggled with F1 to F3): its
+ * portals, the AI lines of its BSP, and the full partitions of its
+ * BSP.
+ *
+ * The segments of each overlay are gathered once, when the playfield
+ * is set, and indexed by the square cells of the level they cross. A
+ * frame draws only the cells in view, and each cell's segments are
+ * drawn into an image the first time it is seen, which is kept (up to
+ * a number of images, least recently drawn dropped first) and drawn
+ * as a whole after that.
+ *
+ * The partitions and AI lines never change. Portals change colour
+ * when they open or close: this is listened for (see PortalListener),
+ * and bumps the version of the cells the portal crosses, so that
+ * their images are redrawn the next time they are drawn.
+ *
+ * Drawn by the renderer's thread only; portals may change on any.
+ *
+ */
+public class DebugOverlays implements PortalListener
+{
+    // The overlays.
+    public static final int PORTALS = 0;
+    public static final int AI_LINES = 1;
+    public static final int PARTITIONS = 2;
+    private static final int NUM_LAYERS = 3;
+
+    // Size of a cell (as a shift, and in pixels).
+    private static final int CELL_SHIFT = 8;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    // Largest number of cell images kept, over all overlays.
+    private static final int MAX_IMAGES = 48;
+
+    // Pixels a segment may be drawn beyond its ends (by 'drawVector',
+    //   for segments shorter than twice the shortening).
+    private static final int MARGIN = 6;
+
+    // A segment of an overlay: its ends, its colour (or the portal
+    //   whose state gives it), and how much its ends are shortened
+    //   (see 'drawVector'; -1 for a plain line).
+    private static class Segment
+    {
+        final int x1, y1, x2, y2;
+        final Color color;
+        final Portal portal;
+        final int shorten;
+
+        Segment(LineSeg s, Color color, Portal portal, int shorten) {
+            this.x1 = s.x1();
+            this.y1 = s.y1();
+            this.x2 = s.x2();
+            this.y2 = s.y2();
+            this.color = color;
+            this.portal = portal;
+            this.shorten = shorten;
+        }
+    }
+
+    // An image of a cell of an overlay, and the cell's version when
+    //   it was drawn.
+    private static class CellImage
+    {
+        final BufferedImage image;
+        int version;
+
+        CellImage(BufferedImage image) {
+            this.image = image;
+        }
+    }
+
+    private final int cellsWide;
+    private final int cellsHigh;
+
+    // Each overlay's segments, in drawing order, and the segments
+    //   (indices, in order) crossing each cell (null for none), by
+    //   overlay, then cell.
+    private final ArrayList<ArrayList<Segment>> segments;
+    private final int[][][] cells;
+
+    // The cells each portal crosses, and the version of each cell.
+    private final IdentityHashMap<Portal, int[]> portalCells = new IdentityHashMap<Portal, int[]>();
+    private final AtomicIntegerArray versions;
+
+    // The cell images, by overlay and cell, in order of use.
+    private final LinkedHashMap<Integer, CellImage> images =
+            new LinkedHashMap<Integer, CellImage>(16, 0.75f, true) {
+                protected boolean removeEldestEntry(Map.Entry<Integer, CellImage> eldest) {
+                    return size() > MAX_IMAGES;
+                }
+            };
+
+    // Constructor. Gathers and indexes the overlays of a playfield,
+    //   and listens to its portals.
+    public DebugOverlays(Playfield pf) {
+        cellsWide = (pf.levelWidth() >> CELL_SHIFT) + 1;
+        cellsHigh = (pf.levelHeight() >> CELL_SHIFT) + 1;
+        versions = new AtomicIntegerArray(cellsWide * cellsHigh);
+        segments = new ArrayList<ArrayList<Segment>>(NUM_LAYERS);
+        for (int layer = 0; layer < NUM_LAYERS; ++layer) {
+            segments.add(new ArrayList<Segment>());
+        }
+
+        // The portals of the BSP (but for those in front of trees and
+        //   stones), then those of the portal squares.
+        gatherPortals(pf, pf.bsp);
+        for (int y = pf.gridHeight() - 1; y >= 0; --y) {
+            for (int x = 0; x < pf.gridWidth(); ++x) {
+                if (!(pf.gameGrid[x][y] instanceof PortalSquare)) continue;
+                PortalSquare ps = (PortalSquare)pf.gameGrid[x][y];
+                for (int side = 0; side < 4; ++side) {
+                    Portal p = ps.getPortal(side);
+                    if (p != null) addPortal(p);
+                }
+            }
+        }
+        gatherLines(pf.bsp);
+
+        // Index the segments by cell.
+        cells = new int[NUM_LAYERS][][];
+        for (int layer = 0; layer < NUM_LAYERS; ++layer) {
+            cells[layer] = index(segments.get(layer));
+        }
+
+        // Note the cells each portal crosses, and listen to it.
+        ArrayList<Segment> portals = segments.get(PORTALS);
+        for (int i = 0; i < portals.size(); ++i) {
+            Portal p = portals.get(i).portal;
+            if (portalCells.containsKey(p)) continue;
+            Segment s = portals.get(i);
+            int cx1 = cellColumn(Math.min(s.x1, s.x2) - MARGIN);
+            int cx2 = cellColumn(Math.max(s.x1, s.x2) + MARGIN);
+            int cy1 = cellRow(Math.min(s.y1, s.y2) - MARGIN);
+            int cy2 = cellRow(Math.max(s.y1, s.y2) + MARGIN);
+            int[] list = new int[(cx2 - cx1 + 1) * (cy2 - cy1 + 1)];
+            int n = 0;
+            for (int cy = cy1; cy <= cy2; ++cy) {
+                for (int cx = cx1; cx <= cx2; ++cx) list[n++] = cy*cellsWide + cx;
+            }
+            portalCells.put(p, list);
+        }
+        for (Portal p : portalCells.keySet()) p.setListener(this);
+    } // end constructor
+
+    // Gather the portals of a BSP node and those below it.
+    private void gatherPortals(Playfield pf, BSPNode bsp) {
+        for (int i = 0; i < bsp.getNumPortals(); ++i) {
+            Portal p = bsp.getPortal(i);
+            if (    BSPNode.getLeaf(pf.bsp, p.getSegment(), LineSeg.FRONT).getProperty()
+                 != LeafProperty.TREE_STONE_POLY )
+            {
+                addPortal(p);
+            }
+        }
+        if (!(bsp.front() instanceof BSPLeaf)) gatherPortals(pf, bsp.front());
+        if (!(bsp.back() instanceof BSPLeaf)) gatherPortals(pf, bsp.back());
+    }
+
+    private void addPortal(Portal p) {
+        segments.get(PORTALS).add(new Segment(p.getSegment(), null, p, 3));
+    }
+
+    // Gather the AI lines and full partitions of a BSP node and those
+    //   below it.
+    private void gatherLines(BSPNode bsp) {
+        for (int i = 0; i < bsp.getNumAILines(); ++i) {
+            segments.get(AI_LINES).add(new Segment(bsp.getAILine(i), Color.PINK, null, -1));
+        }
+        segments.get(PARTITIONS).add(new Segment(bsp.getFullPartition(), Color.ORANGE, null, 5));
+        if (!(bsp.front() instanceof BSPLeaf)) gatherLines(bsp.front());
+        if (!(bsp.back() instanceof BSPLeaf)) gatherLines(bsp.back());
+    }
+
+    // Get the segments crossing each cell.
+    private int[][] index(ArrayList<Segment> list) {
+        int[][] index = new int[cellsWide * cellsHigh][];
+        int[] counts = new int[index.length];
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < list.size(); ++i) {
+                Segment s = list.get(i);
+                int cx1 = cellColumn(Math.min(s.x1, s.x2) - MARGIN);
+                int cx2 = cellColumn(Math.max(s.x1, s.x2) + MARGIN);
+                int cy1 = cellRow(Math.min(s.y1, s.y2) - MARGIN);
+                int cy2 = cellRow(Math.max(s.y1, s.y2) + MARGIN);
+                for (int cy = cy1; cy <= cy2; ++cy) {
+                    for (int cx = cx1; cx <= cx2; ++cx) {
+                        int c = cy*cellsWide + cx;
+                        if (pass == 1) index[c][counts[c]] = i;
+                        ++counts[c];
+                    }
+                }
+            }
+            if (pass == 1) break;
+            for (int c = 0; c < index.length; ++c) {
+                if (counts[c] > 0) index[c] = new int[counts[c]];
+                counts[c] = 0;
+            }
+        }
+        return index;
+    }
+
+    // The cell column of a level x, and the cell row of a level y,
+    //   clamped to the level. A cell's image covers the pixel rows of
+    //   the y's just above its bottom edge up to its top edge.
+    private int cellColumn(int x) {
+        return Math.max(0, Math.min(x >> CELL_SHIFT, cellsWide - 1));
+    }
+    private int cellRow(int y) {
+        return Math.max(0, Math.min((y - 1) >> CELL_SHIFT, cellsHigh - 1));
+    }
+
+    // A portal has opened or closed: have the images of the cells it
+    //   crosses redrawn.
+    public void portalChanged(Portal p) {
+        int[] list = portalCells.get(p);
+        if (list == null) return;
+        for (int i = 0; i < list.length; ++i) versions.incrementAndGet(list[i]);
+    }
+
+    // Draw the part of an overlay in view of the given camera.
+    public void draw(Graphics2D g2d, int layer, int xcam, int ycam) {
+        int cx1 = cellColumn(xcam);
+        int cx2 = cellColumn(xcam + 639);
+        int cy1 = cellRow(ycam + 1);
+        int cy2 = cellRow(ycam + 480);
+        for (int cy = cy1; cy <= cy2; ++cy) {
+            for (int cx = cx1; cx <= cx2; ++cx) {
+                int c = cy*cellsWide + cx;
+                if (cells[layer][c] == null) continue;
+                BufferedImage image = getImage(layer, c);
+                g2d.drawImage(image, (cx << CELL_SHIFT) - xcam,
+                        480 - (((cy + 1) << CELL_SHIFT) - ycam), null);
+            }
+        }
+    }
+
+    // Get the image of a cell of an overlay, drawing it if it is not
+    //   kept or is out of date.
+    private BufferedImage getImage(int layer, int c) {
+        Integer key = Integer.valueOf(layer*cellsWide*cellsHigh + c);
+        CellImage ci = images.get(key);
+        if (ci == null) {
+            ci = new CellImage(SpriteAtlas.GAME.createImage(CELL_SIZE, CELL_SIZE));
+            ci.version = -1;
+            images.put(key, ci);
+        }
+
+        // Only the portals' cells change, so only theirs are checked.
+        //   The version is read before drawing, so that a portal
+        //   changing while it is drawn has it drawn again.
+        int version = (layer == PORTALS) ? versions.get(c) : 0;
+        if (ci.version == version) return ci.image;
+        ci.version = version;
+
+        // Draw the cell's segments, in order, with the level point
+        //   (x, y) at (x - xleft, ytop - y).
+        Graphics2D g = ci.image.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+        g.setComposite(AlphaComposite.SrcOver);
+        int xleft = (c % cellsWide) << CELL_SHIFT;
+        int ytop = ((c / cellsWide) + 1) << CELL_SHIFT;
+        int[] list = cells[layer][c];
+        ArrayList<Segment> all = segments.get(layer);
+        for (int i = 0; i < list.length; ++i) {
+            Segment s = all.get(list[i]);
+            if (s.portal != null) g.setColor(s.portal.isOpen() ? Color.BLUE : Color.RED);
+            else g.setColor(s.color);
+            int x1 = s.x1 - xleft;
+            int y1 = ytop - s.y1;
+            int x2 = s.x2 - xleft;
+            int y2 = ytop - s.y2;
+            if (s.shorten < 0) g.drawLine(x1, y1, x2, y2);
+            else drawVector(x1, y1, x2, y2, s.shorten, g);
+        }
+        g.dispose();
+        return ci.image;
+    } // end method getImage
+
+    // Draw a line, shortened at both ends, with its start thickened.
+    static void drawVector(int x1, int y1, int x2, int y2, int shorten, Graphics2D g2d) {
+
+        // Shorten the line to distinguish between portals.
+        if (x1 < x2) { x1 += shorten; x2 -= shorten; }
+        if (x2 < x1) { x2 += shorten; x1 -= shorten; }
+        if (y1 < y2) { y1 += shorten; y2 -= shorten; }
+        if (y2 < y1) { y2 += shorten; y1 -= shorten; }
+
+        g2d.drawLine(x1, y1, x2, y2);
+
+        // Pixellate the beginning of the portal to indicate
+        //   direction.
+        g2d.drawLine(x1, y1, x1+1, y1);
+        g2d.drawLine(x1, y1, x1, y1+1);
+        g2d.drawLine(x1, y1, x1+1, y1+1);
+        g2d.drawLine(x1, y1, x1-1, y1);
+        g2d.drawLine(x1, y1, x1, y1-1);
+        g2d.drawLine(x1, y1, x1-1, y1-1);
+        g2d.drawLine(x1, y1, x1-1, y1+1);
+        g2d.drawLine(x1, y1, x1+1, y1-1);
+    }
+
+} // end class DebugOverlays
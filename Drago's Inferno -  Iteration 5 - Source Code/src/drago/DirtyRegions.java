@@ -0,0 +1,320 @@
+/*
+ * DirtyRegions.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the scene of each frame (ground, walls and entities) into a
+ * cached full-frame image, redrawing only the parts that changed
+ * while the camera stands still; the cached image is then copied to
+ * the screen in one piece.
+ *
+ * What changed is found by comparing the draw list of the frame with
+ * that of the frame last drawn: a sprite that has moved, changed, or
+ * come or gone (an entity walking or animating, a tree burning down,
+ * a fireball) marks its old and new places as dirty. The dirty
+ * rectangles are merged where they overlap, and each is redrawn with
+ * everything that overlaps it, in painter's order.
+ *
+ * The whole scene is redrawn when the camera moves, and when so much
+ * has changed that redrawing it all is as cheap. The debug overlays
+ * and the dashboard are drawn over the copy each frame, so they are
+ * never cached (portals opening show at once).
+ *
+ * Used by the renderer's thread only.
+ *
+ */
+public class DirtyRegions
+{
+    // Most dirty rectangles kept; beyond this, the whole scene is
+    //   redrawn.
+    private static final int MAX_RECTS = 32;
+
+    // Share of the frame (in percent) dirty, above which the whole
+    //   scene is redrawn.
+    private static final int MAX_DIRTY_PERCENT = 50;
+
+    private final int width;
+    private final int height;
+    private final Color background;
+    private final BufferedImage cache;
+
+    // The frame last drawn into the cache: whether there is one, its
+    //   camera, and the keys of its sprites (see 'key').
+    private boolean valid = false;
+    private int xcam;
+    private int ycam;
+    private final KeySet drawn = new KeySet();
+    private final KeySet current = new KeySet();
+
+    // The dirty rectangles.
+    private final int[] rx = new int[MAX_RECTS];
+    private final int[] ry = new int[MAX_RECTS];
+    private final int[] rw = new int[MAX_RECTS];
+    private final int[] rh = new int[MAX_RECTS];
+    private int rects = 0;
+    private boolean overflow = false;
+
+    // Constructor, for a frame of the given size and background.
+    public DirtyRegions(int width, int height, Color background) {
+        this.width = width;
+        this.height = height;
+        this.background = background;
+        this.cache = SpriteAtlas.GAME.createImage(width, height);
+    }
+
+    // Forget the frame last drawn, so that the next is drawn in whole.
+    public void invalidate() {
+        valid = false;
+    }
+
+    // Draw the scene of a snapshot, redrawing the cache where needed,
+    //   and copy it to the given graphics.
+    public void draw(FrameSnapshot s, Graphics2D g2d) {
+        current.clear();
+        addKeys(s.ground, current);
+        addKeys(s.scene, current);
+
+        boolean full = !valid || s.viewX() != xcam || s.viewY() != ycam;
+        if (!full) {
+            rects = 0;
+            overflow = false;
+            markChanged(s.ground, drawn);
+            markChanged(s.scene, drawn);
+            markGone();
+            full = overflow || dirtyArea() * 100 > (long)width * height * MAX_DIRTY_PERCENT;
+        }
+
+        Graphics2D c = cache.createGraphics();
+        if (full) {
+            c.setColor(background);
+            c.fillRect(0, 0, width, height);
+            s.ground.draw(c);
+            s.scene.draw(c);
+        }
+        else if (rects > 0) {
+            for (int i = 0; i < rects; ++i) {
+                c.setClip(rx[i], ry[i], rw[i], rh[i]);
+                c.setColor(background);
+                c.fillRect(rx[i], ry[i], rw[i], rh[i]);
+                s.ground.draw(c, rx[i], ry[i], rw[i], rh[i]);
+                s.scene.draw(c, rx[i], ry[i], rw[i], rh[i]);
+            }
+        }
+        c.dispose();
+
+        // The frame just drawn becomes the one to compare with.
+        drawn.copy(current);
+        valid = true;
+        xcam = s.viewX();
+        ycam = s.viewY();
+
+        g2d.drawImage(cache, 0, 0, null);
+    } // end method draw
+
+    // Add the keys of a draw list's entries to a set.
+    private void addKeys(FrameSnapshot.DrawList list, KeySet set) {
+        for (int i = 0; i < list.size(); ++i) {
+            set.add(key(list, i), list.drawX(i), list.drawY(i), list.width(i), list.height(i));
+        }
+    }
+
+    // Mark the places of a draw list's entries that were not in the
+    //   frame last drawn.
+    private void markChanged(FrameSnapshot.DrawList list, KeySet old) {
+        for (int i = 0; i < list.size() && !overflow; ++i) {
+            if (!old.contains(key(list, i))) {
+                mark(list.drawX(i), list.drawY(i), list.width(i), list.height(i));
+            }
+        }
+    }
+
+    // Mark the places of the frame last drawn's entries that are gone.
+    private void markGone() {
+        for (int i = 0; i < drawn.size() && !overflow; ++i) {
+            if (!current.contains(drawn.key(i))) {
+                mark(drawn.x(i), drawn.y(i), drawn.width(i), drawn.height(i));
+            }
+        }
+    }
+
+    // Mark a rectangle dirty, merging it with any it overlaps.
+    private void mark(int x, int y, int w, int h) {
+
+        // Clip to the frame.
+        if (x < 0) { w += x; x = 0; }
+        if (y < 0) { h += y; y = 0; }
+        if (x + w > width) w = width - x;
+        if (y + h > height) h = height - y;
+        if (w <= 0 || h <= 0) return;
+
+        // Merge with overlapping rectangles until none overlaps (the
+        //   merged one may overlap others).
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < rects; ++i) {
+                if (x > rx[i] + rw[i] || rx[i] > x + w || y > ry[i] + rh[i] || ry[i] > y + h) continue;
+                int x2 = Math.max(x + w, rx[i] + rw[i]);
+                int y2 = Math.max(y + h, ry[i] + rh[i]);
+                x = Math.min(x, rx[i]);
+                y = Math.min(y, ry[i]);
+                w = x2 - x;
+                h = y2 - y;
+                --rects;
+                rx[i] = rx[rects];
+                ry[i] = ry[rects];
+                rw[i] = rw[rects];
+                rh[i] = rh[rects];
+                merged = true;
+                break;
+            }
+        }
+        if (rects == MAX_RECTS) {
+            overflow = true;
+            return;
+        }
+        rx[rects] = x;
+        ry[rects] = y;
+        rw[rects] = w;
+        rh[rects] = h;
+        ++rects;
+    } // end method mark
+
+    private long dirtyArea() {
+        long area = 0;
+        for (int i = 0; i < rects; ++i) area += (long)rw[i] * rh[i];
+        return area;
+    }
+
+    // The key of a draw list's entry: what is drawn (the sprite, or
+    //   the image) and where.
+    private static long key(FrameSnapshot.DrawList list, int i) {
+        long what = (list.image(i) != null)
+                ? (System.identityHashCode(list.image(i)) | 0x80000000L)
+                : list.sprite(i);
+        return (what << 32)
+             ^ ((long)(list.drawX(i) & 0xffff) << 16)
+             ^ (list.drawY(i) & 0xffff);
+    }
+
+    /**
+     * A set of entry keys with the place of each entry, kept in an
+     * open-addressed hash table that is reused from frame to frame.
+     */
+    private static class KeySet
+    {
+        private long[] table = new long[1024];
+        private boolean[] used = new boolean[1024];
+
+        // The entries in order added.
+        private long[] keys = new long[512];
+        private int[] xs = new int[512];
+        private int[] ys = new int[512];
+        private int[] ws = new int[512];
+        private int[] hs = new int[512];
+        private int count = 0;
+
+        int size() { return count; }
+        long key(int i) { return keys[i]; }
+        int x(int i) { return xs[i]; }
+        int y(int i) { return ys[i]; }
+        int width(int i) { return ws[i]; }
+        int height(int i) { return hs[i]; }
+
+        void clear() {
+            for (int i = 0; i < used.length; ++i) used[i] = false;
+            count = 0;
+        }
+
+        void add(long key, int x, int y, int w, int h) {
+            if (count == keys.length) grow();
+            keys[count] = key;
+            xs[count] = x;
+            ys[count] = y;
+            ws[count] = w;
+            hs[count] = h;
+            ++count;
+            if (count * 2 > table.length) rehash(table.length << 1);
+            else put(key);
+        }
+
+        boolean contains(long key) {
+            int mask = table.length - 1;
+            for (int i = hash(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (table[i] == key) return true;
+            }
+            return false;
+        }
+
+        // Make this set a copy of another.
+        void copy(KeySet other) {
+            if (keys.length < other.count) {
+                keys = new long[other.keys.length];
+                xs = new int[other.keys.length];
+                ys = new int[other.keys.length];
+                ws = new int[other.keys.length];
+                hs = new int[other.keys.length];
+            }
+            System.arraycopy(other.keys, 0, keys, 0, other.count);
+            System.arraycopy(other.xs, 0, xs, 0, other.count);
+            System.arraycopy(other.ys, 0, ys, 0, other.count);
+            System.arraycopy(other.ws, 0, ws, 0, other.count);
+            System.arraycopy(other.hs, 0, hs, 0, other.count);
+            count = other.count;
+            if (table.length != other.table.length) {
+                table = new long[other.table.length];
+                used = new boolean[other.used.length];
+            }
+            System.arraycopy(other.table, 0, table, 0, table.length);
+            System.arraycopy(other.used, 0, used, 0, used.length);
+        }
+
+        private void put(long key) {
+            int mask = table.length - 1;
+            int i = hash(key) & mask;
+            while (used[i]) {
+                if (table[i] == key) return;
+                i = (i + 1) & mask;
+            }
+            table[i] = key;
+            used[i] = true;
+        }
+
+        private void rehash(int n) {
+            table = new long[n];
+            used = new boolean[n];
+            for (int i = 0; i < count; ++i) put(keys[i]);
+        }
+
+        private void grow() {
+            int n = count << 1;
+            long[] nkeys = new long[n];
+            int[] nxs = new int[n];
+            int[] nys = new int[n];
+            int[] nws = new int[n];
+            int[] nhs = new int[n];
+            System.arraycopy(keys, 0, nkeys, 0, count);
+            System.arraycopy(xs, 0, nxs, 0, count);
+            System.arraycopy(ys, 0, nys, 0, count);
+            System.arraycopy(ws, 0, nws, 0, count);
+            System.arraycopy(hs, 0, nhs, 0, count);
+            keys = nkeys;
+            xs = nxs;
+            ys = nys;
+            ws = nws;
+            hs = nhs;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int)(h >>> 32);
+        }
+    } // end class KeySet
+
+} // end class DirtyRegions
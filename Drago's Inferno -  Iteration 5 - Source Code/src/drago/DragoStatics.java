@@ -6,14 +6,9 @@ package drago;
 
 import java.awt.Graphics2D;
 import java.awt.Color;
-import java.io.File;
 import java.util.Random;
 
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.LineEvent;
-import javax.sound.sampled.LineListener;
+import entity.EffectBuffer;
 
 /**
  * These are constants and functions used universally throughout
@@ -63,8 +58,16 @@ public class DragoStatics
     public static final int NUM_RANDOMS = 2000;
     public static final int MAX_RANDOM = 10000;
     public static int[] randomList = new int[NUM_RANDOMS];
+    public static long randomSeed;   // the seed the table was filled from
     public static void loadRandoms() {
-        Random random = new Random();
+        loadRandoms(System.nanoTime());
+    }
+
+    // Fill the random number table from the given seed, so that a run
+    //   can be repeated (see ReplayWriter).
+    public static void loadRandoms(long seed) {
+        randomSeed = seed;
+        Random random = new Random(seed);
         for (int i = 0; i < NUM_RANDOMS; ++i) {
             randomList[i] = random.nextInt(MAX_RANDOM);
         }
@@ -79,28 +82,24 @@ public class DragoStatics
         g2d.drawString(text, x, y);
     }
     
-    // Play a given sound file in the 'sfx\' directory.
+    // Whether sounds are played at all (off for headless runs), and
+    //   the engine that plays them (null for none, e.g. with no audio
+    //   device).
+    public static boolean soundEnabled = true;
+    public static AudioEngine audio = null;
+    
+    // Play a given sound file in the 'sfx\' directory (or record it,
+    //   if an effect buffer is recording on this thread). The sound is
+    //   only queued for the audio engine's mixer, so this never waits.
     public static void playSound(String sndfile) {
-        try {
-            final Clip clip = AudioSystem.getClip();
-            File sfx = new File("sfx\\" + sndfile);
-            AudioInputStream inputStream = AudioSystem.getAudioInputStream(sfx);
-            clip.addLineListener(
-                new LineListener()
-                {
-                public void update(LineEvent e) {
-                    if (e.getType() == LineEvent.Type.STOP)
-                        clip.close();
-                }
-            } );
-            clip.open(inputStream);
-            clip.start();
-            inputStream.close();
-        }
-        catch (Exception e) {
-            System.out.println("Exception while playing sound!");
-            System.exit(1);
+        if (!soundEnabled) return;
+        EffectBuffer buffer = EffectBuffer.current();
+        if (buffer != null) {
+            buffer.recordSound(sndfile);
+            return;
         }
+        AudioEngine engine = audio;
+        if (engine != null) engine.play(sndfile);
     }
 
 }
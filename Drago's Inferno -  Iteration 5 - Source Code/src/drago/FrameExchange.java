@@ -0,0 +1,62 @@
+/*
+ * FrameExchange.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands frame snapshots from the simulation thread to the renderer
+ * without locking. The simulation fills its back snapshot and
+ * publishes it; the renderer takes the most recently published one.
+ *
+ * Three snapshots rotate through the exchange: the one being filled,
+ * the one being painted, and the one published in between. Swapping
+ * through the middle slot means neither side ever waits for the
+ * other, and neither ever sees a snapshot the other is writing.
+ *
+ */
+public class FrameExchange
+{
+    // The snapshot being filled (simulation thread only).
+    private FrameSnapshot back = new FrameSnapshot();
+
+    // The latest published snapshot.
+    private final AtomicReference<FrameSnapshot> ready =
+            new AtomicReference<FrameSnapshot>(new FrameSnapshot());
+
+    // The snapshot being painted (renderer only).
+    private FrameSnapshot front = new FrameSnapshot();
+
+    // Number of snapshots published so far.
+    private long published = 0;
+
+    // Get the snapshot to fill for the next frame (simulation thread).
+    public FrameSnapshot getBack() {
+        return back;
+    }
+
+    // Publish the back snapshot and take a free one in its place
+    //   (simulation thread).
+    public void publish() {
+        back.sequence = ++published;
+        back = ready.getAndSet(back);
+    }
+
+    // Whether a snapshot newer than the one last acquired has been
+    //   published (renderer).
+    public boolean hasNewFrame() {
+        return ready.get().sequence > front.sequence;
+    }
+
+    // Get the newest published snapshot (renderer). The snapshot
+    //   stays valid until the next call.
+    public FrameSnapshot acquire() {
+        if (hasNewFrame()) {
+            front = ready.getAndSet(front);
+        }
+        return front;
+    }
+
+} // end class FrameExchange
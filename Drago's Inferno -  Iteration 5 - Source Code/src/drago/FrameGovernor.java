@@ -0,0 +1,111 @@
+/*
+ * FrameGovernor.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+/**
+ * Watches how long the game loop's work takes against the length of
+ * a tick, and sheds load in a fixed order when it runs over:
+ *
+ *   LEVEL_NORMAL       everything at full rate
+ *   LEVEL_SKIP_FRAMES  only every other frame is captured and painted
+ *   LEVEL_FAR_AI       also, distant archers search for a path only
+ *                        every FAR_SEARCH_TICKS ticks
+ *   LEVEL_ANIMATION    also, off-screen animation steps only every
+ *                        OFFSCREEN_ANIM_TICKS ticks
+ *
+ * The level rises one step when the average cost of a tick stays over
+ * budget for a while, and falls one step when it stays well under for
+ * longer, so that it does not flap between levels. The cost is kept
+ * as a moving average of each frame's work per tick.
+ *
+ * The level can also be fixed (e.g. for performance runs).
+ *
+ */
+public class FrameGovernor
+{
+    // Levels.
+    public static final int LEVEL_NORMAL = 0;
+    public static final int LEVEL_SKIP_FRAMES = 1;
+    public static final int LEVEL_FAR_AI = 2;
+    public static final int LEVEL_ANIMATION = 3;
+    public static final int MAX_LEVEL = 3;
+    public static final String[] LEVEL_NAMES = {
+        "normal", "skip frames", "far AI", "animation"
+    };
+
+    // Detail kept at the higher levels (see Playfield.setDetail).
+    public static final int FAR_SEARCH_TICKS = 8;
+    public static final int OFFSCREEN_ANIM_TICKS = 4;
+
+    // Share of the tick length above which a tick is over budget, and
+    //   below which there is room to spare (in percent).
+    private static final int HIGH_PERCENT = 90;
+    private static final int LOW_PERCENT = 60;
+
+    // Number of frames in a row over budget before the level rises,
+    //   and with room to spare before it falls.
+    private static final int RISE_FRAMES = 15;
+    private static final int FALL_FRAMES = 120;
+
+    private final long tickNanos;
+    private final boolean fixed;
+    private int level;
+
+    // Moving average of the cost of a tick (1/8 weight to the newest
+    //   frame), and the frames in a row over or under budget.
+    private long avgNanos = 0;
+    private int overFrames = 0;
+    private int underFrames = 0;
+
+    // Frames run, for skipping every other one.
+    private long frames = 0;
+
+    // Constructor. 'level' is the fixed level, or -1 to adapt to load.
+    public FrameGovernor(long tickNanos, int level) {
+        this.tickNanos = tickNanos;
+        this.fixed = (level >= 0);
+        this.level = fixed ? Math.min(level, MAX_LEVEL) : LEVEL_NORMAL;
+    }
+
+    public int getLevel() { return level; }
+    public boolean isFixed() { return fixed; }
+
+    // Average cost of a tick, in milliseconds.
+    public double getAvgMillis() { return avgNanos / 1000000.0; }
+
+    // Record the work of one frame: the time taken, and the number of
+    //   ticks run in it.
+    public void recordFrame(long workNanos, int ticks) {
+        ++frames;
+        if (ticks == 0) return;
+        long cost = workNanos / ticks;
+        avgNanos = (avgNanos == 0) ? cost : avgNanos + ((cost - avgNanos) >> 3);
+        if (fixed) return;
+        if (avgNanos * 100 > tickNanos * HIGH_PERCENT) {
+            underFrames = 0;
+            if (++overFrames >= RISE_FRAMES && level < MAX_LEVEL) {
+                ++level;
+                overFrames = 0;
+            }
+        }
+        else if (avgNanos * 100 < tickNanos * LOW_PERCENT) {
+            overFrames = 0;
+            if (++underFrames >= FALL_FRAMES && level > LEVEL_NORMAL) {
+                --level;
+                underFrames = 0;
+            }
+        }
+        else {
+            overFrames = 0;
+            underFrames = 0;
+        }
+    }
+
+    // Whether the current frame should be captured and painted.
+    public boolean shouldRender() {
+        return (level < LEVEL_SKIP_FRAMES) || ((frames & 1) == 0);
+    }
+
+} // end class FrameGovernor
@@ -0,0 +1,134 @@
+/*
+ * FramePresenter.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Draws each frame at the game's own resolution (the 640x480 view of
+ * GameWorld) into a back buffer of that size, then shows the buffer
+ * in whatever space the window (or the screen, in fullscreen) gives
+ * it with a single scaled copy. The sprites are thus drawn at the
+ * same cost whatever the size of the window.
+ *
+ * The buffer is scaled either by the largest whole factor that fits,
+ * keeping the pixels sharp, or to fill as much of the space as it
+ * can with bilinear filtering; either way its shape is kept, and the
+ * bars left over are filled with the background. A space smaller than
+ * the buffer always gets it shrunk to fit.
+ *
+ * The buffer is a volatile (video memory) image when there is a
+ * screen, and is drawn again if its contents are lost while drawing.
+ * Used by the thread that paints (see SceneRenderer) only.
+ *
+ */
+public class FramePresenter
+{
+    // Ways of scaling the buffer (see GameOptions).
+    public static final int SCALE_INTEGER = 0;
+    public static final int SCALE_FILTERED = 1;
+
+    private static final int WIDTH = GameWorld.VIEW_WIDTH;
+    private static final int HEIGHT = GameWorld.VIEW_HEIGHT;
+
+    private final GamePanel panel;
+    private final int scaleMode;
+    private final GraphicsConfiguration gc;
+
+    // The back buffer: volatile with a screen, or else in memory.
+    private VolatileImage volatileBuffer = null;
+    private BufferedImage buffer = null;
+
+    // Constructor.
+    public FramePresenter(GamePanel panel, int scaleMode) {
+        this.panel = panel;
+        this.scaleMode = scaleMode;
+        this.gc = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment()
+                        .getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    // Draw the latest frame into the buffer, and show it scaled on the
+    //   given graphics, which cover 'width' by 'height' pixels.
+    public void present(Graphics2D g2d, int width, int height) {
+        Color background = panel.getBackground();
+        Image frame;
+        if (gc != null) {
+            do {
+                if (    volatileBuffer == null
+                     || volatileBuffer.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE )
+                {
+                    volatileBuffer = gc.createCompatibleVolatileImage(WIDTH, HEIGHT);
+                }
+                draw(volatileBuffer.createGraphics(), background);
+            } while (volatileBuffer.contentsLost());
+            frame = volatileBuffer;
+        }
+        else {
+            if (buffer == null) buffer = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            draw(buffer.createGraphics(), background);
+            frame = buffer;
+        }
+
+        // Size and place of the scaled frame, centred.
+        int w, h;
+        if (scaleMode == SCALE_INTEGER && width >= WIDTH && height >= HEIGHT) {
+            int k = Math.min(width / WIDTH, height / HEIGHT);
+            w = WIDTH * k;
+            h = HEIGHT * k;
+        }
+        else if (width * HEIGHT < height * WIDTH) {
+            w = width;
+            h = width * HEIGHT / WIDTH;
+        }
+        else {
+            w = height * WIDTH / HEIGHT;
+            h = height;
+        }
+        int x = (width - w) >> 1;
+        int y = (height - h) >> 1;
+
+        // Fill the bars, and copy the frame.
+        g2d.setColor(background);
+        if (y > 0) {
+            g2d.fillRect(0, 0, width, y);
+            g2d.fillRect(0, y + h, width, height - y - h);
+        }
+        if (x > 0) {
+            g2d.fillRect(0, y, x, h);
+            g2d.fillRect(x + w, y, width - x - w, h);
+        }
+        if (w == WIDTH && h == HEIGHT) {
+            g2d.drawImage(frame, x, y, null);
+        }
+        else {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    (scaleMode == SCALE_FILTERED)
+                            ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+                            : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2d.drawImage(frame, x, y, w, h, null);
+        }
+    } // end method present
+
+    // Draw the latest frame on the graphics of the buffer.
+    private void draw(Graphics2D g2d, Color background) {
+        try {
+            g2d.setColor(background);
+            g2d.fillRect(0, 0, WIDTH, HEIGHT);
+            panel.render(g2d);
+        }
+        finally {
+            g2d.dispose();
+        }
+    }
+
+} // end class FramePresenter
@@ -0,0 +1,222 @@
+/*
+ * FrameSnapshot.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Everything needed to paint one frame, as captured by the
+ * simulation thread at the end of a tick: the camera, the visible
+ * tiles, the draw list of walls and entities in painter's order, and
+ * the figures shown on the dashboard.
+ *
+ * Each sprite also carries the offset to where it was at the start
+ * of the tick (the camera having moved too), so that the renderer can
+ * draw any point in between (see setLag): a frame drawn after the
+ * tick shows the world as it was a fraction of a tick earlier, so
+ * that motion is smooth however many frames are drawn per tick.
+ *
+ * The renderer reads only the snapshot, never the playfield, so it
+ * can paint one frame while the simulation runs the next tick.
+ * Snapshots are reused (see FrameExchange); a snapshot is never
+ * written while the renderer holds it.
+ *
+ */
+public class FrameSnapshot
+{
+    /**
+     * A list of sprites to draw, in order. Each entry is a sprite of
+     * the sprite atlas (see SpriteAtlas), or an image of its own
+     * (e.g. a ground chunk), and the screen location of its upper-left
+     * corner, with 'z' (altitude) to be subtracted from 'y' when drawn,
+     * and the offset from there to where it was drawn at the start of
+     * the tick.
+     */
+    public static class DrawList
+    {
+        private BufferedImage[] images = new BufferedImage[256];
+        private int[] sprites = new int[256];
+        private int[] xs = new int[256];
+        private int[] ys = new int[256];
+        private int[] zs = new int[256];
+        private int[] backxs = new int[256];
+        private int[] backys = new int[256];
+        private int count = 0;
+
+        // How far back toward the start of the tick the entries are
+        //   drawn (0 to 1; renderer only).
+        private float lag = 0.0f;
+
+        public int size() { return count; }
+        public BufferedImage image(int i) { return images[i]; }
+        public int sprite(int i) { return sprites[i]; }
+        public int x(int i) { return xs[i]; }
+        public int y(int i) { return ys[i]; }
+        public int z(int i) { return zs[i]; }
+
+        // Where an entry's upper-left corner is drawn, at the lag set.
+        public int drawX(int i) {
+            return (lag == 0.0f) ? xs[i] : xs[i] + Math.round(backxs[i] * lag);
+        }
+        public int drawY(int i) {
+            return (lag == 0.0f) ? ys[i] - zs[i] : ys[i] - zs[i] + Math.round(backys[i] * lag);
+        }
+
+        // Size of an entry's sprite or image.
+        public int width(int i) {
+            return (images[i] != null) ? images[i].getWidth() : SpriteAtlas.GAME.getWidth(sprites[i]);
+        }
+        public int height(int i) {
+            return (images[i] != null) ? images[i].getHeight() : SpriteAtlas.GAME.getHeight(sprites[i]);
+        }
+
+        public void clear() {
+            for (int i = 0; i < count; ++i) images[i] = null;
+            count = 0;
+        }
+
+        // Draw the entries in order.
+        public void draw(Graphics2D g2d) {
+            for (int i = 0; i < count; ++i) drawEntry(g2d, i);
+        }
+
+        // Draw the entries in order that overlap the given rectangle
+        //   (the caller clips to it).
+        public void draw(Graphics2D g2d, int x, int y, int width, int height) {
+            for (int i = 0; i < count; ++i) {
+                int ex = drawX(i);
+                int ey = drawY(i);
+                if (    ex >= x + width || ex + width(i) <= x
+                     || ey >= y + height || ey + height(i) <= y )
+                {
+                    continue;
+                }
+                drawEntry(g2d, i);
+            }
+        }
+
+        private void drawEntry(Graphics2D g2d, int i) {
+            if (images[i] != null) g2d.drawImage(images[i], drawX(i), drawY(i), null);
+            else SpriteAtlas.GAME.draw(g2d, sprites[i], drawX(i), drawY(i));
+        }
+
+        // Add an image of its own. 'backx' and 'backy' are the offset
+        //   to where it was drawn at the start of the tick.
+        public void add(BufferedImage image, int x, int y, int z, int backx, int backy) {
+            add(image, -1, x, y, z, backx, backy);
+        }
+
+        // Add a sprite of the atlas.
+        public void addSprite(int sprite, int x, int y, int z, int backx, int backy) {
+            add(null, sprite, x, y, z, backx, backy);
+        }
+
+        private void add(BufferedImage image, int sprite, int x, int y, int z,
+                         int backx, int backy) {
+            if (count == sprites.length) grow();
+            images[count] = image;
+            sprites[count] = sprite;
+            xs[count] = x;
+            ys[count] = y;
+            zs[count] = z;
+            backxs[count] = backx;
+            backys[count] = backy;
+            ++count;
+        }
+
+        private void grow() {
+            int n = count << 1;
+            BufferedImage[] nimages = new BufferedImage[n];
+            int[] nsprites = new int[n];
+            int[] nxs = new int[n];
+            int[] nys = new int[n];
+            int[] nzs = new int[n];
+            int[] nbackxs = new int[n];
+            int[] nbackys = new int[n];
+            System.arraycopy(images, 0, nimages, 0, count);
+            System.arraycopy(sprites, 0, nsprites, 0, count);
+            System.arraycopy(xs, 0, nxs, 0, count);
+            System.arraycopy(ys, 0, nys, 0, count);
+            System.arraycopy(zs, 0, nzs, 0, count);
+            System.arraycopy(backxs, 0, nbackxs, 0, count);
+            System.arraycopy(backys, 0, nbackys, 0, count);
+            images = nimages;
+            sprites = nsprites;
+            xs = nxs;
+            ys = nys;
+            zs = nzs;
+            backxs = nbackxs;
+            backys = nbackys;
+        }
+    } // end class DrawList
+
+    // Sequence number of the tick that produced this snapshot (0 if
+    //   nothing has been captured yet).
+    volatile long sequence = 0;
+    public long getSequence() { return sequence; }
+
+    // Camera position (lower-left corner of the view), the offset to
+    //   where the sprites fixed to the level were drawn at the start
+    //   of the tick (i.e., the camera's motion in the tick, on the
+    //   screen), and when the snapshot was taken (System.nanoTime).
+    public int xcam;
+    public int ycam;
+    public int camBackx;
+    public int camBacky;
+    public long captureNanos;
+
+    // How far back toward the start of the tick the frame is drawn
+    //   (renderer only).
+    private float lag = 0.0f;
+
+    // Visible grid squares: columns gridx1..gridx2, rows gridy1 down
+    //   to gridy2.
+    public int gridx1;
+    public int gridx2;
+    public int gridy1;
+    public int gridy2;
+
+    // The ground tiles of the visible squares.
+    public final DrawList ground = new DrawList();
+
+    // The walls and entities of the visible rows, back to front.
+    public final DrawList scene = new DrawList();
+
+    // Dashboard figures.
+    public int playerx;
+    public int playery;
+    public int playerSpeed;
+    public int fps;
+    public double jitterAvg;
+    public double jitterMax;
+    public double latencyAvg;
+    public double latencyMax;
+    public int governorLevel;
+    public double tickCost;
+
+    // Set how far back toward the start of the tick the frame is
+    //   drawn, from 0 (the end) to 1 (the start) (renderer).
+    public void setLag(float lag) {
+        this.lag = lag;
+        ground.lag = lag;
+        scene.lag = lag;
+    }
+
+    // The camera, at the lag set.
+    public int viewX() {
+        return (lag == 0.0f) ? xcam : xcam - Math.round(camBackx * lag);
+    }
+    public int viewY() {
+        return (lag == 0.0f) ? ycam : ycam + Math.round(camBacky * lag);
+    }
+
+    // Empty the draw lists before the snapshot is filled again.
+    public void clear() {
+        ground.clear();
+        scene.clear();
+    }
+
+} // end class FrameSnapshot
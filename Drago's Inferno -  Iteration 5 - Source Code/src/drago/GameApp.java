@@ -4,14 +4,24 @@
  */
 package drago;
 
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.util.ArrayList;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
 import javax.swing.JFrame;
-//import java.awt.Graphics;
-//import java.awt.image.BufferStrategy;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
-import entity.*;
+import entity.CollisionTable;
 
 /**
  * The main method that contains the event handling and the
@@ -22,306 +32,291 @@ import entity.*;
  */
 public class GameApp {
 
-    private static final boolean VERBOSE = false;
-    
-    // Constants to keep track of what keys are down.
-	private static boolean prLeft = false;
-	private static boolean prRight = false;
-	private static boolean prUp = false;
-	private static boolean prDown = false;
+    // Input events from the Swing thread, drained by the game loop
+	//   before each tick.
+	private static final InputQueue input = new InputQueue(256);
 	
-	// Constants for special ability keys being held down
-	private static boolean prZ = false;
-	private static boolean prX = false;
-	private static boolean prC = false;
-	private static boolean prV = false;
+	// The keys held down (see GameWorld.KEY_ constants), and those
+	//   pressed since the last tick, so that a key pressed and let go
+	//   between two ticks still counts (game loop only).
+	private static int keysHeld = 0;
+	private static int keysPressed = 0;
 	
 	// The JFrame (window) and the GamePanel, where the playfield
 	//   is drawn.
 	private static JFrame f;
 	private static GamePanel gp;
 
-	// The dimensions of the "active region", i.e., the region within
-	//   which certain entities are capable of moving and acting.
-	private static final int activeRegionWidth = 2048;
-	private static final int activeRegionHeight = 1536;
-	
 	// Milliseconds per tick; can be used to change the game speed.
-	private static final long millisPerTick = 15; // For 60 FPS, use 15
+	private static final long millisPerTick = GameWorld.MILLIS_PER_TICK;
+	
+	// The game being played.
+	private static GameWorld world;
+	
+	// Cleared when the window is closed, to end the game loop.
+	private static volatile boolean running = true;
 	
 	// The game.
 	public static void main(String[] args) {
 		
+	    // Read the command-line options.
+	    GameOptions options = GameOptions.parse(args);
+	    
 	    // Load tables.
-        DragoStatics.loadRandoms();
+        DragoStatics.loadRandoms(options.hasSeed ? options.seed : System.nanoTime());
 	    DragoStatics.loadSquareRootTable();
 	    
 	    // Load collision table.
 	    CollisionTable.load();
+	    DragoStatics.soundEnabled = options.sound;
+	    if (options.sound) DragoStatics.audio = AudioEngine.open(new File("sfx"), options.voices);
 	    
 	    // Create JFrame and set properties.
 	    f = new JFrame("Drago's Inferno");
-		f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		f.setLayout(null);
-		f.setBounds(20, 20, 740, 600);
-		f.setVisible(true);
+		f.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		f.addWindowListener(
+		    new WindowAdapter()
+		    {
+		        public void windowClosing(WindowEvent e) { running = false; }
+		    }
+		);
+		f.getContentPane().setPreferredSize(
+		        new Dimension(GameWorld.VIEW_WIDTH, GameWorld.VIEW_HEIGHT));
+		f.pack();
+		f.setLocation(20, 20);
 		
-		//f.setIgnoreRepaint(true); // Double-buffering test
-		//f.createBufferStrategy(4);
-		//final BufferStrategy bufferStrategy = f.getBufferStrategy();
+		// Show it, filling the screen if asked (maximized where
+		//   fullscreen is not supported); the frames are scaled to
+		//   whatever size it has (see FramePresenter).
+		final GraphicsDevice screen =
+		        GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+		final boolean fullscreen = options.fullscreen;
+		if (fullscreen) {
+		    f.setUndecorated(true);
+		    if (screen.isFullScreenSupported()) screen.setFullScreenWindow(f);
+		    else {
+		        f.setExtendedState(JFrame.MAXIMIZED_BOTH);
+		        f.setVisible(true);
+		    }
+		}
+		else f.setVisible(true);
 		
-		// Create game panel and set properties.
+		// Create game panel (loading the ground and walls' sprites) and
+		//   the game world, then show the world on the panel (loading
+		//   the sprites of the entities it places). The sprites are
+		//   decoded on the loader's threads (see AssetLoader) while the
+		//   level is built on a thread of its own, and the window's
+		//   title shows how many are decoded.
+		final AssetLoader assets = AssetLoader.start(new File("img"), options.loadThreads);
+		final String level = options.level;
+		final long[] levelNanos = new long[1];
+		FutureTask<GameWorld> levelTask = new FutureTask<GameWorld>(
+		    new Callable<GameWorld>()
+		    {
+		        public GameWorld call() {
+		            long start = System.nanoTime();
+		            GameWorld w = new GameWorld(level);
+		            levelNanos[0] = System.nanoTime() - start;
+		            return w;
+		        }
+		    }
+		);
+		new Thread(levelTask, "LevelLoader").start();
+		Timer progress = new Timer(100,
+		    new ActionListener()
+		    {
+		        public void actionPerformed(ActionEvent e) {
+		            f.setTitle("Drago's Inferno (loading: " + assets.getDecoded()
+		                    + "/" + assets.getTotal() + " images)");
+		        }
+		    }
+		);
+		progress.start();
 		gp = new GamePanel();
+		try {
+		    world = levelTask.get();
+		}
+		catch (Exception e) {
+		    e.printStackTrace();
+		    System.exit(1);
+		}
+		gp.setPlayfield(world.pf);
+		assets.finish();
+		progress.stop();
+		SwingUtilities.invokeLater(
+		    new Runnable()
+		    {
+		        public void run() { f.setTitle("Drago's Inferno"); }
+		    }
+		);
+		if (options.loadTimes) {
+		    assets.report(System.out, true);
+		    System.out.println(String.format("Built the level in %.1f ms", levelNanos[0] / 1e6));
+		}
+		TickRates rates = TickRates.fromOptions(options);
+		world.setRates(rates);
+		TickExecutor executor = null;
+		if (options.tickMode == TickExecutor.MODE_PARALLEL) {
+		    executor = new TickExecutor(world.pf, options.threads);
+		    world.setExecutor(executor);
+		}
+		
+		// Record the session if asked (see ReplayWriter).
+		ReplayWriter recorder = null;
+		if (options.record != null) {
+		    recorder = new ReplayWriter(options.record, DragoStatics.randomSeed,
+		            options.level, options.tickMode, rates, options.hashEvery);
+		    recorder.hash(0, world.stateHash());
+		}
+		gp.setGroundCache(options.groundChunk, options.groundCacheMB,
+		        options.prefetchThreads, options.prefetchAhead, options.prefetchDepth);
+		gp.setDirtyRegions(options.dirtyRects);
+		gp.setScaleMode(options.scaleMode);
+		if (options.interpolate) gp.setInterpolation(millisPerTick * 1000000L);
 		gp.setLayout(null);
-		gp.setBounds(10, 10, 640, 480);
+		gp.setPreferredSize(new Dimension(GameWorld.VIEW_WIDTH, GameWorld.VIEW_HEIGHT));
 
-		// Add the game panel to the JFrame.
-        f.add(gp);
+		// Add the game panel to the JFrame, or, for active rendering,
+		//   the renderer's canvas in its place.
+		SceneRenderer renderer = null;
+		final Component view;
+		if (options.renderMode == SceneRenderer.MODE_ACTIVE) {
+		    renderer = new SceneRenderer(gp);
+		    if (options.interpolate) renderer.setDisplayRate(options.displayHz);
+		    view = renderer.getCanvas();
+		} else {
+		    view = gp;
+		}
+        f.add(view);
+        f.validate();
 		
         // Keyboard event handling.
-		gp.addKeyListener(
+		view.addKeyListener(
 			new KeyListener()
 			{
 				// Implementation of key events.
+				// Game keys are queued for the game loop; the debug
+				//   toggles only affect painting, on this thread.
 				public void keyPressed(KeyEvent e) {
-					if (e.getKeyCode() == KeyEvent.VK_LEFT) { prLeft = true; }
-					else if (e.getKeyCode() == KeyEvent.VK_RIGHT) { prRight = true; }
-					else if (e.getKeyCode() == KeyEvent.VK_UP) { prUp = true; }
-					else if (e.getKeyCode() == KeyEvent.VK_DOWN) { prDown = true; }
-					else if (e.getKeyCode() == KeyEvent.VK_F) { gp.pf.player.addSpeed(1); }
-					else if (e.getKeyCode() == KeyEvent.VK_S) { gp.pf.player.addSpeed(-1);}
-					else if (e.getKeyCode() == KeyEvent.VK_Z) { prZ = true; }
-					else if (e.getKeyCode() == KeyEvent.VK_X) { prX = true; }
-					else if (e.getKeyCode() == KeyEvent.VK_C) { prC = true; }
-					else if (e.getKeyCode() == KeyEvent.VK_V) { prV = true;	}
+					int bit = getKeyBit(e.getKeyCode());
+					if (bit != 0) { input.offer(InputQueue.EV_PRESS, bit); }
+					else if (e.getKeyCode() == KeyEvent.VK_F) { input.offer(InputQueue.EV_SPEED, 1); }
+					else if (e.getKeyCode() == KeyEvent.VK_S) { input.offer(InputQueue.EV_SPEED, -1); }
 					else if (e.getKeyCode() == KeyEvent.VK_F1) { gp.AILINES = !gp.AILINES; }
 					else if (e.getKeyCode() == KeyEvent.VK_F2) { gp.FULLPARTITIONS = !gp.FULLPARTITIONS; }
 					else if (e.getKeyCode() == KeyEvent.VK_F3) { gp.PORTALS = !gp.PORTALS; }
+					else if (e.getKeyCode() == KeyEvent.VK_ESCAPE && fullscreen) { running = false; }
 					else if (e.getKeyCode() == KeyEvent.VK_F11) { /* Debug entry point */ }
 				}
 				public void keyReleased(KeyEvent e) {
-					if (e.getKeyCode() == KeyEvent.VK_LEFT) { prLeft = false; }
-					else if (e.getKeyCode() == KeyEvent.VK_RIGHT) {	prRight = false; }
-					else if (e.getKeyCode() == KeyEvent.VK_UP) { prUp = false; }
-					else if (e.getKeyCode() == KeyEvent.VK_DOWN) { prDown = false; }
-					else if (e.getKeyCode() == KeyEvent.VK_Z) { prZ = false; }
-					else if (e.getKeyCode() == KeyEvent.VK_X) { prX = false; }
-					else if (e.getKeyCode() == KeyEvent.VK_C) { prC = false; }
-					else if (e.getKeyCode() == KeyEvent.VK_V) { prV = false; }
+					int bit = getKeyBit(e.getKeyCode());
+					if (bit != 0) input.offer(InputQueue.EV_RELEASE, bit);
 				}
 				public void keyTyped(KeyEvent e) {}
 
 			}
 		);
 
-		// Set focus to the game panel and make it visible.
-        gp.setFocusable(true);
-		gp.requestFocusInWindow();
-		gp.setVisible(true);
+		// Set focus to the game panel (or canvas) and make it visible.
+        view.setFocusable(true);
+		view.requestFocusInWindow();
+		view.setVisible(true);
+		if (renderer != null) renderer.start();
 
 		//DragoStatics.loadSounds();
 		
-        // Initialize active entity list by adding all enemies near
-		//   the player's starting point.
-        Player ply = gp.pf.player;
-        ArrayList<Entity> newEntities = new ArrayList<Entity>();
-		int sqxbegin = ply.x() - (activeRegionWidth>>1);
-		int sqxend = ply.x() + (activeRegionWidth>>1);
-        int sqybegin = ply.y() - (activeRegionHeight>>1);
-        int sqyend = ply.y() + (activeRegionHeight>>1);
-        sqxbegin /= 32;
-        sqxend   /= 32;
-        sqybegin /= 32;
-        sqyend   /= 32;
-        for (int sqx = sqxbegin; sqx <= sqxend; ++sqx) {
-            for (int sqy = sqybegin; sqy <= sqyend; ++sqy) {
-                if ((sqx < 0) || (sqx > gp.pf.gridWidth() - 1)) continue;
-                if ((sqy < 0) || (sqy > gp.pf.gridHeight() - 1)) continue;
-                for (int i = 0; i < gp.pf.gameGrid[sqx][sqy].entities.size(); ++i) {
-                    Entity t = gp.pf.gameGrid[sqx][sqy].entities.get(i);
-                    if (!newEntities.contains(t)) newEntities.add(t);
-                }
-            }
-        }
-        for (int i = 0; i < newEntities.size(); ++i) {
-            gp.pf.addActiveEntity(newEntities.get(i));
-        }
-		
-        // Some counter variables for use in the game. (Move them somewhere
-        //   else, maybe?)
-        final int fireballDelay = 4;
-        int fireballRecoveryTime = 0;
-        
-        // The action loop for gameplay. We'll put more stuff in here later.
-		//   For now, this just allows the user to scroll and see the map.
-		while (true) {
+        // The action loop for gameplay. The scheduler decides how many
+        //   ticks are due for each frame (more than one when catching up).
+        LoopScheduler loop = new LoopScheduler(
+                options.loopMode,
+                millisPerTick * 1000000L,
+                options.maxCatchUpTicks);
+        FrameGovernor governor = new FrameGovernor(millisPerTick * 1000000L, options.detail);
+		while (running) {
 			
-			// Record current time for framerate adjustment.
-		    long begin = System.currentTimeMillis();
+		    // Wait for the next frame and run the ticks due for it, at
+		    //   the governor's load level.
+		    int ticks = loop.nextFrame();
+		    long workStart = System.nanoTime();
+		    for (int i = 0; i < ticks; ++i) {
+		        int keys = drainInput() | (governor.getLevel() << GameWorld.KEY_LEVEL_SHIFT);
+		        if (recorder != null) recorder.tick(keys);
+		        world.tick(keys);
+		        if (recorder != null) recorder.hash(world.getTickCount(), world.stateHash());
+		    }
 			
-			// If player is in a standing or walking state, allow the player
-			//   to change his/her own dx, dy. Also allow player to use
-			//   special abilities.
-			if (    ply.getState() == Entity.ST_PLAYER_STANDING
-			     || ply.getState() == Entity.ST_PLAYER_WALKING )
-			{
-			    // Adjust player's dx/dy if player wants to walk.
-			    int speed = ply.getSpeed();
-			    if (prUp) ply.setdy(speed);
-			    else if (prDown) ply.setdy(-speed);
-			    else ply.setdy(0);
-			    if (prLeft) ply.setdx(-speed);
-			    else if (prRight) ply.setdx(speed);
-			    else ply.setdx(0);
-			    
-		         // Set direction facing based on dx/dy.
-			    int dir = ply.getFacing();
-	            if      (ply.dx() <  0 && ply.dy() <  0) dir = Entity.F_DOWN_LEFT;
-	            else if (ply.dx() <  0 && ply.dy() == 0) dir = Entity.F_LEFT;
-	            else if (ply.dx() <  0 && ply.dy() >  0) dir = Entity.F_UP_LEFT;
-	            else if (ply.dx() == 0 && ply.dy() <  0) dir = Entity.F_DOWN;
-	            else if (ply.dx() == 0 && ply.dy() >  0) dir = Entity.F_UP;
-	            else if (ply.dx() >  0 && ply.dy() <  0) dir = Entity.F_DOWN_RIGHT;
-	            else if (ply.dx() >  0 && ply.dy() == 0) dir = Entity.F_RIGHT;
-	            else if (ply.dx() >  0 && ply.dy() >  0) dir = Entity.F_UP_RIGHT;
-	            ply.setFacing(dir);
-	            
-	            // If now walking, set state to 'walking'. Otherwise, if now standing,
-	            //   set state to 'standing'.
-	            if (ply.dx() != 0 || ply.dy() != 0) {
-	                if (ply.getState() != Entity.ST_PLAYER_WALKING) { 
-	                    ply.setState(Entity.ST_PLAYER_WALKING);
-	                    ply.setStateCounter(40);
-	                }
-	            }
-	            else ply.setState(Entity.ST_PLAYER_STANDING);
-	            
-	            // Special ability 1: fireball (granted from start of game).
-	            if ((prZ || prX || prC || prV) && (fireballRecoveryTime == 0)) {
-	                Fireball fb = new Fireball(
-	                        ply.x(),
-	                        ply.y(),
-	                        Entity.getStringForFacing(ply.getFacing()),
-	                        gp.pf);
-	                gp.pf.addEntity(fb);
-	                gp.pf.addActiveEntity(fb);
-	                fb.addWhereFacing(14, false);
-	                fireballRecoveryTime = fireballDelay;
-	                DragoStatics.playSound("FIREBALL_1.wav");
-	            }
-	            else if (fireballRecoveryTime > 0) --fireballRecoveryTime;
-	            
-			} // end if (player can stand/walk)
-            
-			// Let the player act.
-			ply.act();
+			// Get FPS, tick jitter and input latency for display in the
+			//   GamePanel.
+			gp.fps = loop.getFps();
+			gp.jitterAvg = loop.getJitterAvgMillis();
+			gp.jitterMax = loop.getJitterMaxMillis();
+			input.updateLatency(System.nanoTime());
+			gp.latencyAvg = input.getLatencyAvgMillis();
+			gp.latencyMax = input.getLatencyMaxMillis();
+			gp.governorLevel = governor.getLevel();
+			gp.tickCost = governor.getAvgMillis();
 			
-			// If any entities are now within the active region, add
-			//   them to the active entity list of the playfield.
-			newEntities.clear();
-			if (ply.dx() != 0) {
-			    int sqstep = DragoStatics.sign(ply.dx());
-			    sqxend = ply.x() + sqstep*(activeRegionWidth>>1);
-			    sqxbegin = sqxend - ply.dx();
-			    sqxbegin >>= 5;
-			    sqxend >>= 5;
-			    sqybegin = ply.y() - (activeRegionHeight>>1);
-			    sqyend = ply.y() + (activeRegionHeight>>1);
-			    sqybegin >>= 5;
-			    sqyend >>= 5;
-			    int sqx = sqxbegin;
-			    while (true) {
-			        for (int sqy = sqybegin; sqy <= sqyend; ++sqy) {
-			            if ((sqx < 0) || (sqx > gp.pf.gridWidth() - 1)) continue;
-                        if ((sqy < 0) || (sqy > gp.pf.gridHeight() - 1)) continue;
-			            for (int i = 0; i < gp.pf.gameGrid[sqx][sqy].getNumEntities(); ++i) {
-			                Entity t = gp.pf.gameGrid[sqx][sqy].entities.get(i);
-			                if (!newEntities.contains(t)) newEntities.add(t);
-			            }
-			        }
-                    if (sqx == sqxend) break;
-                    else sqx += sqstep;
-			    }
+			// Capture a snapshot of the frame on this thread and have
+			//   the renderer paint it while the next tick runs
+			//   (unless the governor skips this frame).
+			if (governor.shouldRender()) {
+			    gp.setCam(world.getXCam(), world.getYCam());
+			    gp.setLastTick(world.getTickCount() - 1, world.getPrevXCam(), world.getPrevYCam());
+			    gp.captureFrame();
+			    if (renderer != null) renderer.frameReady();
+			    else gp.repaint();
 			}
-            if (ply.dy() != 0) {
-                int sqstep = DragoStatics.sign(ply.dy());
-                sqyend = ply.y() + sqstep*(activeRegionHeight>>1);
-                sqybegin = sqyend - ply.dy();
-                sqybegin >>= 5;
-                sqyend >>= 5;
-                sqxbegin = ply.x() - (activeRegionWidth>>1);
-                sqxend = ply.x() + (activeRegionWidth>>1);
-                sqxbegin >>= 5;
-                sqxend >>= 5;
-                int sqy = sqybegin;
-                while (true) {
-                    for (int sqx = sqxbegin; sqx <= sqxend; ++sqx) {
-                        if ((sqx < 0) || (sqx > gp.pf.gridWidth() - 1)) continue;
-                        if ((sqy < 0) || (sqy > gp.pf.gridHeight() - 1)) continue;
-                        for (int i = 0; i < gp.pf.gameGrid[sqx][sqy].getNumEntities(); ++i) {
-                            Entity t = gp.pf.gameGrid[sqx][sqy].entities.get(i);
-                            if (!newEntities.contains(t)) newEntities.add(t);
-                        }
-                    }
-                    if (sqy == sqyend) break;
-                    else sqy += sqstep;
-                }
-            }
-            for (int i = 0; i < newEntities.size(); ++i)
-                gp.pf.addActiveEntity(newEntities.get(i));
-                
-			// Tell each entity within the active region to act one framestep.
-            for (int i = 0; i < gp.pf.numActiveEntities(); ++i) {
-                Entity t = gp.pf.getActiveEntity(i);
-                int oldentx = t.x();
-                int oldenty = t.y();
-                if (!(t instanceof Player)) t.act();
-                if (t instanceof Fireball) {
-                    if (VERBOSE) System.out.println("Old fireball position: (" + oldentx
-                            + ", " + oldenty + "), new fireball position: (" + t.x()
-                            + ", " + t.y() + ")");
-                    if (VERBOSE) System.out.println("Player's position: (" + ply.x()
-                            + ", " + ply.y() + ")");
-                }
-            }
-			
-			// If any active entities are now off the active region,
-			//   remove them from the active entity list. Don't do
-            //   this for fireballs and other projectiles as it would
-            //   be unrealistic.
-			for (int i = 0; i < gp.pf.numActiveEntities(); ++i) {
-			    Entity t = gp.pf.getActiveEntity(i);
-			    if (t instanceof Fireball) continue;
-			    if (t instanceof Explosion) continue;
-			    int distx = Math.abs(ply.x() - t.x());
-			    int disty = Math.abs(ply.y() - t.y());
-			    if (    (distx > (activeRegionWidth>>1))
-			         || (disty > (activeRegionHeight>>1)) )
-			    {
-			        gp.pf.removeActiveEntity(t);
-			    }
-			}
-			
-			// Set the camera based on player's position.
-			gp.setXCam(ply.x() - 320);
-			gp.setYCam(ply.y() - 240);
-			if (gp.getXCam() < 0) gp.setXCam(0);
-			if (gp.getXCam() > gp.pf.levelWidth() - 640)
-			    gp.setXCam(gp.pf.levelWidth() - 640);
-			if (gp.getYCam() < 0) gp.setYCam(0);
-			if (gp.getYCam() > gp.pf.levelHeight() - 480)
-			    gp.setYCam(gp.pf.levelHeight() - 480);
-			
-			// Repaint the game panel.
-			gp.repaint();
-
-			// Wait for the next frame.
-			while (System.currentTimeMillis() - begin < millisPerTick) {}
-			
-			// Get FPS for display in the GamePanel.
-			int fps = (int)(1000/(System.currentTimeMillis() - begin));
-			gp.fps = fps;
+			governor.recordFrame(System.nanoTime() - workStart, ticks);
 			
 		} // end while (main game loop)
+		
+		// The window was closed: finish the recording and quit.
+		if (renderer != null) renderer.stop();
+		if (fullscreen && screen.getFullScreenWindow() == f) screen.setFullScreenWindow(null);
+		if (recorder != null) recorder.close();
+		if (executor != null) executor.shutdown();
+		if (DragoStatics.audio != null) DragoStatics.audio.close();
+		System.exit(0);
+		
 	} // end main
+	
+	// Apply the input events queued since the last tick, and get the
+	//   mask of keys for the next tick (see GameWorld.KEY_ constants):
+	//   those held down, and those pressed since the last tick.
+	private static int drainInput() {
+	    keysPressed = 0;
+	    long now = System.nanoTime();
+	    while (input.poll()) {
+	        switch (input.kind()) {
+	        case InputQueue.EV_PRESS:
+	            keysHeld |= input.value();
+	            keysPressed |= input.value();
+	            break;
+	        case InputQueue.EV_RELEASE:
+	            keysHeld &= ~input.value();
+	            break;
+	        case InputQueue.EV_SPEED:
+	            keysPressed |= (input.value() > 0) ? GameWorld.KEY_FASTER : GameWorld.KEY_SLOWER;
+	            break;
+	        }
+	        input.applied(now);
+	    }
+	    keysHeld &= ~input.takeDroppedReleases();
+	    return keysHeld | keysPressed;
+	}
+	
+	// Get the KEY_ bit for a game key (0 for any other key).
+	private static int getKeyBit(int keyCode) {
+	    switch (keyCode) {
+	    case KeyEvent.VK_LEFT:  return GameWorld.KEY_LEFT;
+	    case KeyEvent.VK_RIGHT: return GameWorld.KEY_RIGHT;
+	    case KeyEvent.VK_UP:    return GameWorld.KEY_UP;
+	    case KeyEvent.VK_DOWN:  return GameWorld.KEY_DOWN;
+	    case KeyEvent.VK_Z:     return GameWorld.KEY_Z;
+	    case KeyEvent.VK_X:     return GameWorld.KEY_X;
+	    case KeyEvent.VK_C:     return GameWorld.KEY_C;
+	    case KeyEvent.VK_V:     return GameWorld.KEY_V;
+	    }
+	    return 0;
+	}
 } // end class PortalViewApp
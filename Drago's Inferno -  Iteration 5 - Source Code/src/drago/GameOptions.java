@@ -0,0 +1,248 @@
+/*
+ * GameOptions.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+/**
+ * The options selected on the command line when the game is
+ * started. Each option is given as '-name=value' (or just '-name'
+ * for a switch), e.g. 'java drago.GameApp -loop=spin'.
+ *
+ */
+public class GameOptions
+{
+    // Loop scheduler used by the main game loop (see LoopScheduler).
+    public int loopMode = LoopScheduler.MODE_FIXED;
+
+    // Largest number of simulation ticks run back-to-back when the
+    //   loop falls behind.
+    public int maxCatchUpTicks = 5;
+
+    // How the active entities act (see TickExecutor), and on how
+    //   many threads.
+    public int tickMode = TickExecutor.MODE_PARALLEL;
+    public int threads = Runtime.getRuntime().availableProcessors();
+
+    // The level played.
+    public String level = "Prototype Playfield.dat";
+
+    // Seed of the random number table (random if not given).
+    public boolean hasSeed = false;
+    public long seed = 0;
+
+    // Replay files to record to and to play back (null for none),
+    //   and the number of ticks between state hashes recorded.
+    public String record = null;
+    public String replay = null;
+    public int hashEvery = 100;
+
+    // Load level of the frame governor (see FrameGovernor), or -1 to
+    //   adapt to load. Headless runs treat -1 as normal.
+    public int detail = -1;
+
+    // Rates of the simulation systems (see TickRates): the distance
+    //   rings and the ticks between actions in each, and the rates of
+    //   path searches and animation, in Hz. By default everything runs
+    //   every tick, as the game always has; -ringticks and -searchhz
+    //   slow the systems down (e.g. -ringticks=1,2,4 -searchhz=20).
+    public int[] ringEdges = { 512, 1024 };
+    public int[] ringTicks = { 1, 1, 1 };
+    public int searchHz = (int)(1000 / GameWorld.MILLIS_PER_TICK);
+    public int animHz = 60;
+
+    // How frames are drawn (see SceneRenderer).
+    public int renderMode = SceneRenderer.MODE_ACTIVE;
+
+    // Side of the ground cache's chunks, in pixels, and the memory
+    //   they may take, in megabytes (see GroundChunkCache).
+    public int groundChunk = GroundChunkCache.DEFAULT_SIZE;
+    public int groundCacheMB = GroundChunkCache.DEFAULT_BUDGET_MB;
+
+    // Prefetching of ground chunks ahead of the camera: the threads
+    //   (none if 0), the ticks looked ahead, and the most chunks
+    //   queued at once.
+    public int prefetchThreads = GroundChunkCache.DEFAULT_PREFETCH_THREADS;
+    public int prefetchAhead = GroundChunkCache.DEFAULT_LOOKAHEAD;
+    public int prefetchDepth = GroundChunkCache.DEFAULT_QUEUE_DEPTH;
+
+    // How frames are scaled to the window (see FramePresenter), and
+    //   whether the window fills the screen (Escape quits).
+    public int scaleMode = FramePresenter.SCALE_INTEGER;
+    public boolean fullscreen = false;
+
+    // Whether frames are drawn in between ticks, and the rate they
+    //   are then drawn at, in Hz (see SceneRenderer).
+    public boolean interpolate = false;
+    public int displayHz = 120;
+
+    // Whether only the changed parts of the scene are redrawn while
+    //   the camera stands still (see DirtyRegions).
+    public boolean dirtyRects = false;
+
+    // Threads decoding the sprites at startup, and whether the time
+    //   taken by each sprite is printed (see AssetLoader).
+    public int loadThreads = AssetLoader.DEFAULT_THREADS;
+    public boolean loadTimes = false;
+
+    // Whether sounds are played, and how many at once (see
+    //   AudioEngine).
+    public boolean sound = true;
+    public int voices = AudioEngine.DEFAULT_VOICES;
+
+    // Headless runs (see HeadlessApp): the number of ticks to run,
+    //   the condition that ends the run early, and where the
+    //   player's input comes from.
+    public int ticks = 10000;
+    public int until = HeadlessApp.UNTIL_NONE;
+    public int input = HeadlessApp.INPUT_NONE;
+
+    // Default constructor (all defaults).
+    public GameOptions() {}
+
+    // Parse the command-line arguments given to 'main'.
+    public static GameOptions parse(String[] args) {
+        GameOptions options = new GameOptions();
+        for (int i = 0; i < args.length; ++i) {
+            String arg = args[i];
+            if (!arg.startsWith("-")) error("parse", "invalid argument (" + arg + ")");
+            String name = arg.substring(1);
+            String value = "";
+            int eq = name.indexOf('=');
+            if (eq >= 0) {
+                value = name.substring(eq + 1);
+                name = name.substring(0, eq);
+            }
+            options.set(name, value);
+        }
+        return options;
+    }
+
+    // Set a single option by name.
+    private void set(String name, String value) {
+        switch (name) {
+        case "loop":
+            switch (value) {
+            case "fixed": loopMode = LoopScheduler.MODE_FIXED; break;
+            case "spin":  loopMode = LoopScheduler.MODE_SPIN;  break;
+            default: error("set", "unknown loop scheduler (" + value + ")");
+            }
+            break;
+        case "catchup": maxCatchUpTicks = parseInt(name, value, 1); break;
+        case "tick":
+            switch (value) {
+            case "serial":   tickMode = TickExecutor.MODE_SERIAL;   break;
+            case "parallel": tickMode = TickExecutor.MODE_PARALLEL; break;
+            default: error("set", "unknown tick mode (" + value + ")");
+            }
+            break;
+        case "threads": threads = parseInt(name, value, 1); break;
+        case "level": level = parseFile(name, value); break;
+        case "seed": seed = parseLong(name, value); hasSeed = true; break;
+        case "record": record = parseFile(name, value); break;
+        case "replay": replay = parseFile(name, value); break;
+        case "hashevery": hashEvery = parseInt(name, value, 0); break;
+        case "detail":
+            if (value.equals("auto")) detail = -1;
+            else {
+                detail = parseInt(name, value, 0);
+                if (detail > FrameGovernor.MAX_LEVEL) error("set", "detail level must be at most " + FrameGovernor.MAX_LEVEL);
+            }
+            break;
+        case "rings": ringEdges = parseInts(name, value, 1); break;
+        case "ringticks": ringTicks = parseInts(name, value, 1); break;
+        case "searchhz": searchHz = parseInt(name, value, 1); break;
+        case "animhz": animHz = parseInt(name, value, 1); break;
+        case "render":
+            switch (value) {
+            case "active": renderMode = SceneRenderer.MODE_ACTIVE; break;
+            case "swing":  renderMode = SceneRenderer.MODE_SWING;  break;
+            default: error("set", "unknown renderer (" + value + ")");
+            }
+            break;
+        case "scale":
+            switch (value) {
+            case "integer":  scaleMode = FramePresenter.SCALE_INTEGER;  break;
+            case "filtered": scaleMode = FramePresenter.SCALE_FILTERED; break;
+            default: error("set", "unknown scaling (" + value + ")");
+            }
+            break;
+        case "fullscreen": fullscreen = true; break;
+        case "interpolate": interpolate = true; break;
+        case "displayhz": displayHz = parseInt(name, value, 1); break;
+        case "groundchunk": groundChunk = parseInt(name, value, 32); break;
+        case "groundcache": groundCacheMB = parseInt(name, value, 1); break;
+        case "prefetch": prefetchThreads = parseInt(name, value, 0); break;
+        case "prefetchahead": prefetchAhead = parseInt(name, value, 1); break;
+        case "prefetchdepth": prefetchDepth = parseInt(name, value, 1); break;
+        case "dirty": dirtyRects = true; break;
+        case "loadthreads": loadThreads = parseInt(name, value, 1); break;
+        case "loadtimes": loadTimes = true; break;
+        case "mute": sound = false; break;
+        case "voices": voices = parseInt(name, value, 1); break;
+        case "ticks": ticks = parseInt(name, value, 1); break;
+        case "until":
+            switch (value) {
+            case "dead":    until = HeadlessApp.UNTIL_DEAD;    break;
+            case "cleared": until = HeadlessApp.UNTIL_CLEARED; break;
+            default: error("set", "unknown stop condition (" + value + ")");
+            }
+            break;
+        case "input":
+            switch (value) {
+            case "none":   input = HeadlessApp.INPUT_NONE;   break;
+            case "wander": input = HeadlessApp.INPUT_WANDER; break;
+            default: error("set", "unknown input source (" + value + ")");
+            }
+            break;
+        default: error("set", "unknown option (-" + name + ")");
+        }
+    }
+
+    // Parse an integer option value that must be at least 'min'.
+    private static int parseInt(String name, String value, int min) {
+        int n = 0;
+        try {
+            n = Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            error("parseInt", "option -" + name + " needs a number (" + value + ")");
+        }
+        if (n < min) error("parseInt", "option -" + name + " must be at least " + min);
+        return n;
+    }
+
+    // Parse a comma-separated list of integers, each at least 'min'
+    //   (an empty list is allowed).
+    private static int[] parseInts(String name, String value, int min) {
+        if (value.length() == 0) return new int[0];
+        String[] parts = value.split(",");
+        int[] n = new int[parts.length];
+        for (int i = 0; i < parts.length; ++i) n[i] = parseInt(name, parts[i], min);
+        return n;
+    }
+
+    // Parse an option value naming a file.
+    private static String parseFile(String name, String value) {
+        if (value.length() == 0) error("parseFile", "option -" + name + " needs a file name");
+        return value;
+    }
+
+    // Parse a long integer option value.
+    private static long parseLong(String name, String value) {
+        long n = 0;
+        try {
+            n = Long.parseLong(value);
+        }
+        catch (NumberFormatException e) {
+            error("parseLong", "option -" + name + " needs a number (" + value + ")");
+        }
+        return n;
+    }
+
+    private static void error(String function, String message) {
+        System.out.println("GameOptions." + function + "(): " + message);
+        System.exit(1);
+    }
+
+} // end class GameOptions
@@ -14,21 +14,13 @@ import java.awt.image.BufferedImage;
 //import java.awt.image.BufferStrategy;
 import java.io.File;
 import javax.swing.JPanel;
-import javax.imageio.ImageIO;
 
 import playfield.*;
 
-import entity.Archer;
-import entity.BlueEgg;
-import entity.Explosion;
-import entity.Fireball;
-import entity.GreenEgg;
 import entity.Player;
-import entity.RedEgg;
 import entity.Stone;
 import entity.Tree;
 import entity.Entity;
-import entity.YellowEgg;
 
 /**
  * The panel that shows the game's playfield.
@@ -59,26 +51,40 @@ public class GamePanel extends JPanel {
 	public void setCam(int x, int y) { xcam = x; ycam = y; }
 	public void moveCam(int dx, int dy) { xcam += dx; ycam += dy; }
 	
+	// The last tick run, and the camera at its start, for drawing in
+	//   between ticks; and the length of a tick, in nanoseconds (0 to
+	//   draw each snapshot as it was captured).
+	private long lastTick = -1;
+	private int prevXcam = 0;
+	private int prevYcam = 0;
+	private long tickNanos = 0;
+	public void setLastTick(long tick, int prevX, int prevY) {
+		lastTick = tick;
+		prevXcam = prevX;
+		prevYcam = prevY;
+	}
+	public void setInterpolation(long tickNanos) { this.tickNanos = tickNanos; }
+	
 	// The walls (each array currently holds
 	//   eight buffered images). Prefix them with
 	//   SP_ too, to follow Java's enum rule.
-	private ArrayList<BufferedImage> SP_BRICK_WALL_RED = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_BRICK_WALL_WHITE = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_BROWN_CAVE_WALL = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_IRON_WALL = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_STONE_WALL = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_GIMP_BRICK_1 = new ArrayList<BufferedImage>();
+	private ArrayList<Integer> SP_BRICK_WALL_RED = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_BRICK_WALL_WHITE = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_BROWN_CAVE_WALL = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_IRON_WALL = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_STONE_WALL = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_GIMP_BRICK_1 = new ArrayList<Integer>();
 	
 	// The ground textures (five per array).
-	private ArrayList<BufferedImage> SP_GRASS = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_HIGH_GRASS = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_DIRT = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_LAVA = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_SAND = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_WATER = new ArrayList<BufferedImage>();	
-	private ArrayList<BufferedImage> SP_DUNGEON_TILE_1 = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_ICE = new ArrayList<BufferedImage>();
-	private ArrayList<BufferedImage> SP_GRAY_ROCK_GROUND = new ArrayList<BufferedImage>();
+	private ArrayList<Integer> SP_GRASS = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_HIGH_GRASS = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_DIRT = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_LAVA = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_SAND = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_WATER = new ArrayList<Integer>();	
+	private ArrayList<Integer> SP_DUNGEON_TILE_1 = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_ICE = new ArrayList<Integer>();
+	private ArrayList<Integer> SP_GRAY_ROCK_GROUND = new ArrayList<Integer>();
 
 	// Some constants to help us decide which
 	//   array index we are on with the wall and
@@ -92,15 +98,75 @@ public class GamePanel extends JPanel {
 	private final int TX_LEFT = 6;
 	private final int TX_RIGHT = 7;
 
-	// The playfield object (contained in this case
-	//   by the game panel).
+	// The playfield object (that of the game world being shown).
 	public Playfield pf;
 	
+	// Frame snapshots passed from the simulation thread to the
+	//   Swing thread, which paints them.
+	private final FrameExchange frames = new FrameExchange();
+	
+	// The walls of the playfield, composed when it is set.
+	private WallComposites walls;
+	
+	// The debug overlays of the playfield, gathered when it is set.
+	private DebugOverlays overlays;
+	
+	// The ground layer, baked into chunks (simulation thread only).
+	private GroundChunkCache groundCache = new GroundChunkCache(this,
+	        GroundChunkCache.DEFAULT_SIZE, GroundChunkCache.DEFAULT_BUDGET_MB);
+	
+	// Set the side of the ground cache's chunks, in pixels, the
+	//   memory they may take, in megabytes, and how they are
+	//   prefetched (see GroundChunkCache): on how many threads (none
+	//   if 0), how many ticks ahead, and how many at once.
+	public void setGroundCache(int chunkSize, int budgetMB,
+	                           int prefetchThreads, int lookahead, int queueDepth) {
+		groundCache.shutdown();
+		groundCache = new GroundChunkCache(this, chunkSize, budgetMB,
+		        prefetchThreads, lookahead, queueDepth);
+	}
+	
+	// Shows the frames drawn by 'render' scaled to the panel (or the
+	//   renderer's canvas).
+	private FramePresenter presenter = new FramePresenter(this, FramePresenter.SCALE_INTEGER);
+	
+	// Set how frames are scaled to the space they are shown in (see
+	//   FramePresenter).
+	public void setScaleMode(int scaleMode) {
+		presenter = new FramePresenter(this, scaleMode);
+	}
+	
+	// The scene as last drawn, for redrawing only what changed while
+	//   the camera stands still (renderer's thread only), or null to
+	//   draw it all every frame.
+	private DirtyRegions dirty = null;
+	
+	// Set whether only the changed parts of the scene are redrawn
+	//   when the camera stands still (see DirtyRegions).
+	public void setDirtyRegions(boolean on) {
+		dirty = on ? new DirtyRegions(640, 480, getBackground()) : null;
+	}
+	
 	// For frames-per-second recording.
 	public int fps;
+	
+	// Tick jitter (average and maximum over the last second), in
+	//   milliseconds.
+	public double jitterAvg;
+	public double jitterMax;
+	
+	// Input latency, from key event to the tick that applies it
+	//   (average and maximum over the last second), in milliseconds.
+	public double latencyAvg;
+	public double latencyMax;
+	
+	// Load level of the frame governor, and the average cost of a
+	//   tick, in milliseconds.
+	public int governorLevel;
+	public double tickCost;
 		
 	// A quick method to get the sprite array for any given texture.
-	private ArrayList<BufferedImage> getSpriteArray(Texture t) {
+	private ArrayList<Integer> getSpriteArray(Texture t) {
 		switch(t) {
 		case BRICK_WALL_RED:      return SP_BRICK_WALL_RED;
 		case BRICK_WALL_WHITE:    return SP_BRICK_WALL_WHITE;
@@ -131,7 +197,7 @@ public class GamePanel extends JPanel {
 				// Get the next texture name and the array
 				//   name corresponding to the index.
 				String texname = "";
-				ArrayList<BufferedImage> array = null;
+				ArrayList<Integer> array = null;
 				switch(i) {
 				case 0:  texname = "BRICK_WALL_RED";    array = SP_BRICK_WALL_RED;      break;
 				case 1:  texname = "BRICK_WALL_WHITE";  array = SP_BRICK_WALL_WHITE;    break;
@@ -186,27 +252,13 @@ public class GamePanel extends JPanel {
 
 					// Otherwise, read it into the corresponding
 					//   buffered image variable.
-					array.add(j, ImageIO.read(imgfile));
+					array.add(j, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
 
 				} // end for (by sprite of current texture)
 			} // end for (by texture)
 			
-			// Load entity sprites.
-			Player.loadSprites();
-			Player.loadDamageSprites(); // Not used yet.
-			Archer.loadSprites();
-			Tree.loadSprites();
-			Stone.loadSprites();
-			Fireball.loadSprites();
-			Explosion.loadSprites();
-			RedEgg.loadSprites();
-			GreenEgg.loadSprites();
-			BlueEgg.loadSprites();
-			YellowEgg.loadSprites();
-			
-            // Get the playfield object.
-            pf = new Playfield();
-            pf.loadLevel("Prototype Playfield.dat");
+			// The entities' sprites are loaded with the level (see
+			//   setPlayfield).
 			
 		}
 		catch (Exception e)
@@ -217,72 +269,132 @@ public class GamePanel extends JPanel {
 	
 	} // end constructor
 
-	// Method to paint the GamePanel -- i.e., fill it with the playfield's
-	//   contents at the camera's location.
-	public void paintComponent(Graphics g)
-	{
-		super.paintComponent(g);
-	
-		Graphics2D g2d = (Graphics2D)g;
-
-		// Get upper-left corner of camera.
-		int x0 = xcam;
-		int y0 = ycam + 480;
+	// Set the playfield shown, loading the sprites of the entities it
+	//   places (see SpriteSets) and composing its walls.
+	public void setPlayfield(Playfield pf) {
+		this.pf = pf;
+		SpriteSets.GAME.load(pf.getEntityTypes());
+		walls = composeWalls(pf);
+		overlays = new DebugOverlays(pf);
+		if (dirty != null) dirty.invalidate();
+	}
 	
-		// Get leftmost and rightmost columns of grid squares.
-		int gridx1 = x0 >> 5;
-		int gridx2 = (x0 + 640) >> 5;
-			
-		// Get uppermost and lowermost columns of grid squares.
-		//   Here, y1 > y2 (y1 goes down to y2).
-		int gridy1 = y0 >> 5;
-		int gridy2 = ycam >> 5 + 2;
+	// Method to compose the walls of each grid square of a playfield
+	//   (see WallComposites): the back wall, made of the top of the
+	//   wall on its upper side and, if there is no wall in front, the
+	//   side of it; and the front wall, made of the top of the wall on
+	//   its lower side and, if there is no wall below, the front of it.
+	private WallComposites composeWalls(Playfield pf) {
 		
-		// STEP 1: Draw all the flat, ground-based textures.
-		for (int y = gridy1; y >= gridy2; --y) {
-			for (int x = gridx1; x <= gridx2; ++x) {
-				
-				// If not in game grid, ignore.
-				if (    x < 0 || x > pf.gridWidth() - 1
-					 || y < 0 || y > pf.gridHeight() - 1 )
-				{
-					continue;
-				}
+		WallComposites w = new WallComposites(pf.gridWidth(), pf.gridHeight());
+		int[] sprites = new int[3];
+		int[] offsets = new int[3];
+		for (int y = 0; y < pf.gridHeight(); ++y) {
+			for (int x = 0; x < pf.gridWidth(); ++x) {
 				
-				// Get information about the textures in this grid square.
 				Texture upper = pf.gameGrid[x][y].getTexture(DragoStatics.UPPER);
 				Texture lower = pf.gameGrid[x][y].getTexture(DragoStatics.LOWER);
-				Texture left  = pf.gameGrid[x][y].getTexture(DragoStatics.LEFT);
-				
-				// Get sprites to draw.
-				ArrayList<BufferedImage> uppertext = this.getSpriteArray(upper);
-				ArrayList<BufferedImage> lowertext = this.getSpriteArray(lower);
-				
-				// Get location of sprite to draw on panel.
-				int xsprite = (x << 5) - xcam;
-				int ysprite = 480 - ((y << 5) - ycam) - 32;
+				Texture left = pf.gameGrid[x][y].getTexture(DragoStatics.LEFT);
 				
-				// Now select the appropriate two textures to draw and
-				//   draw them.
-				if (!Texture.isWall(upper)) {
-    				if (upper == left) {
-    					g2d.drawImage(uppertext.get(TX_UPPER_LEFT),  xsprite, ysprite, null);
-    				} else {
-                        g2d.drawImage(uppertext.get(TX_UPPER_RIGHT), xsprite, ysprite, null);
-    				}
+				// The back wall, if the upper texture is a wall.
+				if (Texture.isWall(upper)) {
+					int side = (upper == left) ? TX_UPPER_LEFT : TX_UPPER_RIGHT;
+					sprites[0] = this.getSpriteArray(upper).get(side);
+					offsets[0] = 0;
+					int n = 1;
+					if (!Texture.isWall(lower)) {
+						side = (side == TX_UPPER_LEFT) ? TX_RIGHT : TX_LEFT;
+						int wall = this.getSpriteArray(upper).get(side);
+						sprites[1] = wall;
+						offsets[1] = 0;
+						sprites[2] = wall;
+						offsets[2] = 32;
+						n = 3;
+					}
+					w.setBack(x, y, w.stack(sprites, offsets, n));
 				}
-				if (!Texture.isWall(lower)) {
-				    if (upper == left) {
-	                    g2d.drawImage(lowertext.get(TX_LOWER_RIGHT),  xsprite, ysprite, null);
-				    } else {
-    					g2d.drawImage(lowertext.get(TX_LOWER_LEFT), xsprite, ysprite, null);
-				    }
+				
+				// The front wall, if the lower texture is a wall.
+				if (Texture.isWall(lower)) {
+					int side = (upper == left) ? TX_LOWER_RIGHT : TX_LOWER_LEFT;
+					sprites[0] = this.getSpriteArray(lower).get(side);
+					offsets[0] = 0;
+					int n = 1;
+					Texture below = null;
+					if (y > 0) below = pf.gameGrid[x][y - 1].getTexture(DragoStatics.UPPER);
+					if (!((below != null) && (Texture.isWall(below)))) {
+						int front = this.getSpriteArray(lower).get(TX_FRONT);
+						sprites[1] = front;
+						offsets[1] = 32;
+						sprites[2] = front;
+						offsets[2] = 64;
+						n = 3;
+					}
+					w.setFront(x, y, w.stack(sprites, offsets, n));
 				}
 				
-			} // end for (by column/grid square)
+			} // end for (by column)
 		} // end for (by row)
+		return w;
+		
+	} // end method composeWalls
+	
+	// Method to capture the frame snapshot for the current camera
+	//   position -- i.e., everything that 'paintComponent' will draw.
+	//   Called by the simulation thread at the end of each tick; the
+	//   snapshot is then published to the renderer.
+	public void captureFrame() {
+	    
+	    SpriteSets.GAME.collect();
+	    FrameSnapshot s = frames.getBack();
+	    s.clear();
+	    s.xcam = xcam;
+	    s.ycam = ycam;
+	    s.captureNanos = System.nanoTime();
+	    
+	    // Without interpolation, everything is drawn where it is now.
+	    boolean interpolate = tickNanos > 0;
+	    int xcam0 = interpolate ? prevXcam : xcam;
+	    int ycam0 = interpolate ? prevYcam : ycam;
+	    s.camBackx = xcam - xcam0;
+	    s.camBacky = ycam0 - ycam;
+	    s.playerx = pf.player.x();
+	    s.playery = pf.player.y();
+	    s.playerSpeed = pf.player.getSpeed();
+	    s.fps = fps;
+	    s.jitterAvg = jitterAvg;
+	    s.jitterMax = jitterMax;
+	    s.latencyAvg = latencyAvg;
+	    s.latencyMax = latencyMax;
+	    s.governorLevel = governorLevel;
+	    s.tickCost = tickCost;
+
+		// Get upper-left corner of camera (of the camera now and at
+		//   the start of the tick, taken together).
+		int x0 = Math.min(xcam, xcam0);
+		int y0 = Math.max(ycam, ycam0) + 480;
+	
+		// Get leftmost and rightmost columns of grid squares.
+		int gridx1 = x0 >> 5;
+		int gridx2 = (Math.max(xcam, xcam0) + 640) >> 5;
+			
+		// Get uppermost and lowermost columns of grid squares.
+		//   Here, y1 > y2 (y1 goes down to y2). The two rows below
+		//   the view hold the walls and entities whose sprites (at
+		//   most 64 pixels tall, walls drawn 96 above their square)
+		//   reach up into it.
+		int gridy1 = y0 >> 5;
+		int gridy2 = (Math.min(ycam, ycam0) >> 5) - 2;
+		s.gridx1 = gridx1;
+		s.gridx2 = gridx2;
+		s.gridy1 = gridy1;
+		s.gridy2 = gridy2;
+		
+		// STEP 1: Capture the flat, ground-based textures, as the
+		//   chunks of the ground cache that are in view.
+		groundCache.capture(s, pf);
 		
-		// STEP 2: Loop by row of grid squares, first painting the upper walls,
+		// STEP 2: Loop by row of grid squares, first adding the upper walls,
 		//   then the objects in between, and then the lower walls.
 		// FIXME: This is not a perfect implementation yet. To make sure that
 		//   everything works for floating objects and objects with arbitrary
@@ -290,11 +402,11 @@ public class GamePanel extends JPanel {
 		//   location from the *lowest vertex of the bounding polygon* rather
 		//   than (currently) with an (x, y) value of the entity.
 		
-		// Objects in 'drawList' are held by index of their y-values within the row.
-		ArrayList<ArrayList<Entity>> drawList = new ArrayList<ArrayList<Entity>>();
-		for (int i = 0; i < 32; ++i) {
-		    drawList.add(new ArrayList<Entity>());
-		}
+		// The entities in painter's order, and the left and right
+		//   edges of the visible columns.
+		DepthBuckets depth = pf.getDepthBuckets();
+		int xleft = gridx1 << 5;
+		int xright = (gridx2 << 5) + 31;
 		
 		// For each visible row..
         for (int y = gridy1; y >= gridy2; --y) {
@@ -302,106 +414,64 @@ public class GamePanel extends JPanel {
             // Ignore row if not in game grid.
             if (y < 0 || y > pf.gridHeight() - 1) continue;
 
-            // Clear sprite list.
-            for (int i = 0; i < 32; ++i) {
-                drawList.get(i).clear();
-            }
-            
             // For each square in the current row...
             for (int x = gridx1; x <= gridx2; ++x) {
                 
                 // If not in game grid, ignore.
                 if (x < 0 || x > pf.gridWidth() - 1) continue;
                 
-                // Get entities in this square.
-                for (int i = 0; i < pf.gameGrid[x][y].entities.size(); ++i) {
-                    
-                    // Get the next entity.
-                    Entity E = pf.gameGrid[x][y].entities.get(i);
-
-                    // If y-coordinate of lowest vertex of entity's bounding polygon
-                    //   lies within this row, add it to the draw list.
-                    // OPTIMIZE: Make this precomputed.
-                    int lowesty = 2147483647;
-                    Polygon poly = E.getBoundingPoly(); // FIXME: Null pointer exception here: why?
-                    for (int j = 0; j < poly.getNumVertices(); ++j) {
-                        if (poly.getVertex(j).y < lowesty) {
-                            lowesty = poly.getVertex(j).y;
-                        }
-                    }
-                    if (lowesty >> 5 == y) {
-                        int j = lowesty - (y << 5);
-                        if (!drawList.get(j).contains(E)) {
-                            drawList.get(j).add(E);
-                        }
-                    }
+                // Add the back wall on this square, if one exists,
+                //   composed ahead of time (see composeWalls).
+                int back = walls.getBack(x, y);
+                if (back >= 0) {
+                    s.scene.addSprite(back, (x << 5) - xcam, 480 - ((y << 5) - ycam) - 96, 0,
+                            s.camBackx, s.camBacky);
                 }
-                
-                // Draw upper wall on this square, if one exists.
-                Texture upper = pf.gameGrid[x][y].getTexture(DragoStatics.UPPER);
-                if (Texture.isWall(upper)) {
-                    
-                    // Draw the top part of the wall.
-                    int xtop = (x << 5) - xcam;
-                    int ytop = 480 - ((y << 5) - ycam) - 96;
-                    Texture left = pf.gameGrid[x][y].getTexture(DragoStatics.LEFT);
-                    int side = (upper == left) ? TX_UPPER_LEFT : TX_UPPER_RIGHT;
-                    BufferedImage top = this.getSpriteArray(upper).get(side);
-                    g2d.drawImage(top, xtop, ytop, null);
-                    
-                    // If there is no wall in front, draw the side of the wall.
-                    Texture lower = pf.gameGrid[x][y].getTexture(DragoStatics.LOWER);
-                    if (!Texture.isWall(lower)) {
-                        side = (side == TX_UPPER_LEFT) ? TX_RIGHT : TX_LEFT;
-                        BufferedImage wall = this.getSpriteArray(upper).get(side);
-                        g2d.drawImage(wall, xtop, ytop, null);
-                        g2d.drawImage(wall, xtop, ytop + 32, null);
-                    } 
-
-                } // end if (upper texture is a wall)
             } // end for (by grid square in current row)
             
-            // Draw all entities in this row from back to front via
-            //   the Painter's algorithm.
+            // Add all entities in this row from back to front via
+            //   the Painter's algorithm, walking the row's depth
+            //   buckets from the top down (those whose bounding box
+            //   is not within the visible columns are skipped).
             for (int i = 31; i >= 0; --i) {
-                for (int j = 0; j < drawList.get(i).size(); ++j) {
-                    drawList.get(i).get(j).drawSprite(g2d, xcam, ycam);
+                ArrayList<Entity> bucket = depth.get((y << 5) + i);
+                for (int j = 0; j < bucket.size(); ++j) {
+                    Entity E = bucket.get(j);
+                    if (E.bboxx() + E.bboxwidth() < xleft || E.bboxx() > xright) continue;
+                    int backx = s.camBackx;
+                    int backy = s.camBacky;
+                    if (interpolate) {
+                        backx += E.prevx(lastTick) - E.x();
+                        backy += (E.y() - E.prevy(lastTick)) + (E.z() - E.prevz(lastTick));
+                    }
+                    int effect = E.getSpriteEffect();
+                    if (effect == SpriteEffects.NONE) {
+                        s.scene.addSprite(E.getCurrentSprite(), E.getSpriteX(xcam), E.getSpriteY(ycam), E.z(),
+                                backx, backy);
+                    }
+                    else {
+                        s.scene.add(SpriteEffects.GAME.get(E.getCurrentSprite(), effect, E.getSpriteEffectColor()),
+                                E.getSpriteX(xcam), E.getSpriteY(ycam), E.z(), backx, backy);
+                    }
                 }
             }
             
-            // Draw all the front walls.
+            // Add all the front walls.
             for (int x = gridx1; x <= gridx2; ++x) {
                 
                 // If not in game grid, ignore.
                 if (x < 0 || x > pf.gridWidth() - 1) continue;
 
-                // If the lower texture of this square is a wall...
-                Texture lower = pf.gameGrid[x][y].getTexture(DragoStatics.LOWER);
-                if (Texture.isWall(lower)) {
-                    
-                    // Draw the top part of the wall.
-                    Texture upper = pf.gameGrid[x][y].getTexture(DragoStatics.UPPER);
-                    Texture left = pf.gameGrid[x][y].getTexture(DragoStatics.LEFT);
-                    int side = (upper == left) ? TX_LOWER_RIGHT : TX_LOWER_LEFT;
-                    int xtop = (x << 5) - xcam;
-                    int ytop = 480 - ((y << 5) - ycam) - 96;
-                    BufferedImage top = this.getSpriteArray(lower).get(side);
-                    g2d.drawImage(top, xtop, ytop, null);
-                    
-                    // Draw the front of the wall (horizontal) if no wall below.
-                    Texture below = null;
-                    if (y > 0) below = pf.gameGrid[x][y - 1].getTexture(DragoStatics.UPPER);
-                    if (!((below != null) && (Texture.isWall(below)))) {
-                        BufferedImage front = this.getSpriteArray(lower).get(TX_FRONT);
-                        g2d.drawImage(front, xtop, ytop + 32, null);
-                        g2d.drawImage(front, xtop, ytop + 64, null);
-                    }
-                
-                } // end if (lower texture is a wall)
+                // Add the front wall on this square, if one exists.
+                int front = walls.getFront(x, y);
+                if (front >= 0) {
+                    s.scene.addSprite(front, (x << 5) - xcam, 480 - ((y << 5) - ycam) - 96, 0,
+                            s.camBackx, s.camBacky);
+                }
             } // end for (by grid square in current row again)
         } // end for (by row of grid squares)
-                
-                        
+        
+        
         /* *** All of this is old and pending deletion! ***
 		
 		// Draw walls (to illustrate how the game will look). Does not incorporate
@@ -505,137 +575,123 @@ public class GamePanel extends JPanel {
 		
 		*/
         
+        // Hand the snapshot to the renderer.
+        frames.publish();
         
-		// Now draw the portals (testing purposes only).
-		if (PORTALS) {
-			
-			// Draw all portals contained in the BSP.
-			drawPortals(pf.bsp, g2d);
-			
-			// Now draw all portals referred to by the
-			//   PortalSquares.
-			for (int y = pf.gridHeight() - 1; y >= 0; --y) {
-				for (int x = 0; x < pf.gridWidth(); ++x) {
-					if (pf.gameGrid[x][y] instanceof PortalSquare) {
-						
-						PortalSquare ps = (PortalSquare)pf.gameGrid[x][y];
-						for (int portal = 0; portal < 4; ++portal) {
-							if (ps.getPortal(portal) == null) continue;
-							int x1 = ps.getPortal(portal).getSegment().x1() - xcam;
-							int y1 = 480 - (ps.getPortal(portal).getSegment().y1() - ycam);
-							int x2 = ps.getPortal(portal).getSegment().x2() - xcam;
-							int y2 = 480 - (ps.getPortal(portal).getSegment().y2() - ycam);
-							if (!ps.getPortal(portal).isOpen()) g2d.setColor(Color.RED);
-							else g2d.setColor(Color.BLUE);
-							drawVector(x1, y1, x2, y2, 3, g2d);
-						}
-					}
-				}
-			}
-		}
+	} // end method captureFrame
+	
+	// Method to draw the ground of one grid square, its two triangles
+	//   (but not those under walls), with the upper-left corner at
+	//   the given location. Used to build the ground cache's chunks.
+	void drawGroundSquare(Playfield pf, int x, int y, int xsprite, int ysprite, Graphics2D g2d) {
 		
-		if (AILINES) drawAILines(pf.bsp, g2d);
-		if (FILLGRID) checkFillGrid(g2d);
-		if (FULLPARTITIONS) drawFullPartitions(pf.bsp, g2d);
+		// Get information about the textures in this grid square.
+		Texture upper = pf.gameGrid[x][y].getTexture(DragoStatics.UPPER);
+		Texture lower = pf.gameGrid[x][y].getTexture(DragoStatics.LOWER);
+		Texture left  = pf.gameGrid[x][y].getTexture(DragoStatics.LEFT);
 		
-		g2d.setColor(Color.WHITE);
-		g2d.setFont(new Font("Arial", Font.BOLD, 14));
-		DragoStatics.drawShadedString("FPS: " + fps, 20, 20, g2d);
-		DragoStatics.drawShadedString("F1: View AI Lines", 480, 420, g2d);
-        DragoStatics.drawShadedString("F2: View partitions", 480, 440, g2d);
-        DragoStatics.drawShadedString("F3: View portals", 480, 460, g2d);
+		// Now select the appropriate two textures to draw.
+		if (!Texture.isWall(upper)) {
+			int side = (upper == left) ? TX_UPPER_LEFT : TX_UPPER_RIGHT;
+			SpriteAtlas.GAME.draw(g2d, this.getSpriteArray(upper).get(side), xsprite, ysprite);
+		}
+		if (!Texture.isWall(lower)) {
+			int side = (upper == left) ? TX_LOWER_RIGHT : TX_LOWER_LEFT;
+			SpriteAtlas.GAME.draw(g2d, this.getSpriteArray(lower).get(side), xsprite, ysprite);
+		}
+		
+	} // end method drawGroundSquare
+	
+	// Method to paint the GamePanel -- i.e., fill it with the contents
+	//   of the latest frame snapshot, scaled to its size. Runs on the
+	//   Swing thread when the panel is shown (see SceneRenderer for
+	//   the other way).
+	public void paintComponent(Graphics g)
+	{
+		super.paintComponent(g);
+		present((Graphics2D)g, getWidth(), getHeight());
 		
 		// I heard this assists with garbage collection. Should I use these?
-		g2d.dispose();
 		g.dispose();
 		
 	} // end method paintComponent
-
-	// ----- All methods below this point are for testing -----
-	// ----- and will not be used in the game.            -----
 	
-	private void drawPortals(BSPNode bsp, Graphics2D g2d) {
-		for (int i = 0; i < bsp.getNumPortals(); ++i) {
-			int x1 = bsp.getPortal(i).getSegment().x1();
-			int y1 = bsp.getPortal(i).getSegment().y1();
-			int x2 = bsp.getPortal(i).getSegment().x2();
-			int y2 = bsp.getPortal(i).getSegment().y2();
-			x1 = x1 - xcam;
-			y1 = 480 - (y1 - ycam);
-			x2 = x2 - xcam;
-			y2 = 480 - (y2 - ycam);
-			
-			if (bsp.getPortal(i).isOpen())
-				g2d.setColor(Color.BLUE);
-			else
-				g2d.setColor(Color.RED);
-			
-			// Draw only if front leaf isn't a tree/stone poly.
-			if (    (BSPNode.getLeaf(pf.bsp, bsp.getPortal(i).getSegment(), LineSeg.FRONT).getProperty()
-                    != LeafProperty.TREE_STONE_POLY) )
-			{
-				drawVector(x1, y1, x2, y2, 3, g2d);
-			}
-		}
-		if (!(bsp.front() instanceof BSPLeaf)) drawPortals(bsp.front(), g2d);
-		if (!(bsp.back() instanceof BSPLeaf)) drawPortals(bsp.back(), g2d);
-	}
-
-	private void drawAILines(BSPNode bsp, Graphics2D g2d) {
-		for (int i = 0; i < bsp.getNumAILines(); ++i) {
-			int x1 = bsp.getAILine(i).x1();
-			int y1 = bsp.getAILine(i).y1();
-			int x2 = bsp.getAILine(i).x2();
-			int y2 = bsp.getAILine(i).y2();
-			x1 = x1 - xcam;
-			y1 = 480 - (y1 - ycam);
-			x2 = x2 - xcam;
-			y2 = 480 - (y2 - ycam);
-			g2d.setColor(Color.PINK);
-			g2d.drawLine(x1, y1, x2, y2);
-		}
-		if (!(bsp.front() instanceof BSPLeaf)) drawAILines(bsp.front(), g2d);
-		if (!(bsp.back() instanceof BSPLeaf)) drawAILines(bsp.back(), g2d);
-	}
-
-	private void drawFullPartitions(BSPNode bsp, Graphics2D g2d) {
-		int x1 = bsp.getFullPartition().x1();
-		int y1 = bsp.getFullPartition().y1();
-		int x2 = bsp.getFullPartition().x2();
-		int y2 = bsp.getFullPartition().y2();
-		x1 = x1 - xcam;
-		y1 = 480 - (y1 - ycam);
-		x2 = x2 - xcam;
-		y2 = 480 - (y2 - ycam);
-		g2d.setColor(Color.ORANGE);
-		drawVector(x1, y1, x2, y2, 5, g2d);
-		if (!(bsp.front() instanceof BSPLeaf)) drawFullPartitions(bsp.front(), g2d);
-		if (!(bsp.back() instanceof BSPLeaf)) drawFullPartitions(bsp.back(), g2d);
+	// Method to draw the latest frame snapshot at the game's own
+	//   resolution, and show it scaled on graphics covering 'width' by
+	//   'height' pixels (see FramePresenter).
+	public void present(Graphics2D g2d, int width, int height)
+	{
+		presenter.present(g2d, width, height);
 	}
 	
-	private void drawVector(int x1, int y1, int x2, int y2, int shorten, Graphics2D g2d) {
-
-		// Shorten the line to distinguish between portals.
-		if (x1 < x2) { x1 += shorten; x2 -= shorten; }
-		if (x2 < x1) { x2 += shorten; x1 -= shorten; }
-		if (y1 < y2) { y1 += shorten; y2 -= shorten; }
-		if (y2 < y1) { y2 += shorten; y1 -= shorten; }
+	// Method to draw the latest frame snapshot, in the 640x480 view
+	//   (see 'present' for any other size). Reads nothing but the
+	//   snapshot (and the debug overlays), so it can run on whichever
+	//   thread paints: the Swing thread, or SceneRenderer's own.
+	public void render(Graphics2D g2d)
+	{
+		// Get the latest snapshot. Nothing is drawn until the first
+		//   one has been published.
+		FrameSnapshot s = frames.acquire();
+		if (s.getSequence() == 0) return;
+		
+		// With interpolation, draw the world as it was the time since
+		//   the snapshot was taken before the end of its tick, so that
+		//   the start of the tick is shown when it comes in, and its
+		//   end one tick later (when the next comes in).
+		float lag = 0.0f;
+		if (tickNanos > 0) {
+			long since = System.nanoTime() - s.captureNanos;
+			lag = Math.max(0.0f, 1.0f - (float)since / tickNanos);
+		}
+		s.setLag(lag);
+		int xcam = s.viewX();
+		int ycam = s.viewY();
 		
-		g2d.drawLine(x1, y1, x2, y2);
+		// Draw the ground, then the walls and entities.
+		if (dirty != null) dirty.draw(s, g2d);
+		else {
+			s.ground.draw(g2d);
+			s.scene.draw(g2d);
+		}
+        
+		// Now draw the debug overlays (testing purposes only).
+		if (PORTALS) overlays.draw(g2d, DebugOverlays.PORTALS, xcam, ycam);
+		if (AILINES) overlays.draw(g2d, DebugOverlays.AI_LINES, xcam, ycam);
+		if (FILLGRID) checkFillGrid(xcam, ycam, g2d);
+		if (FULLPARTITIONS) overlays.draw(g2d, DebugOverlays.PARTITIONS, xcam, ycam);
+		
+		g2d.setColor(Color.WHITE);
+		g2d.setFont(new Font("Arial", Font.BOLD, 14));
+		DragoStatics.drawShadedString("FPS: " + s.fps, 20, 20, g2d);
+		DragoStatics.drawShadedString("Dragon's (x, y) = (" + s.playerx + ", " + s.playery + ")", 20, 40, g2d);
+		DragoStatics.drawShadedString("Dragon's speed is " + s.playerSpeed, 20, 60, g2d);
+		DragoStatics.drawShadedString(
+		        String.format("Jitter: %.2f ms avg, %.2f ms max", s.jitterAvg, s.jitterMax),
+		        20, 80, g2d);
+		DragoStatics.drawShadedString(
+		        String.format("Input: %.2f ms avg, %.2f ms max", s.latencyAvg, s.latencyMax),
+		        20, 100, g2d);
+		DragoStatics.drawShadedString(
+		        String.format("Load: %.2f ms/tick, level %d (%s)", s.tickCost, s.governorLevel,
+		                FrameGovernor.LEVEL_NAMES[s.governorLevel]),
+		        20, 120, g2d);
+		DragoStatics.drawShadedString("F1: View AI Lines", 480, 420, g2d);
+        DragoStatics.drawShadedString("F2: View partitions", 480, 440, g2d);
+        DragoStatics.drawShadedString("F3: View portals", 480, 460, g2d);
 		
-		// Pixellate the beginning of the portal to indicate
-		//   direction.
-		g2d.drawLine(x1, y1, x1+1, y1);
-		g2d.drawLine(x1, y1, x1, y1+1);
-		g2d.drawLine(x1, y1, x1+1, y1+1);
-		g2d.drawLine(x1, y1, x1-1, y1);
-		g2d.drawLine(x1, y1, x1, y1-1);
-		g2d.drawLine(x1, y1, x1-1, y1-1);
-		g2d.drawLine(x1, y1, x1-1, y1+1);
-		g2d.drawLine(x1, y1, x1+1, y1-1);
+	} // end method render
+	
+	// Whether a snapshot newer than the one last drawn has been
+	//   published (renderer only).
+	public boolean hasNewFrame() {
+		return frames.hasNewFrame();
 	}
 	
-	private void checkFillGrid(Graphics2D g2d) {
+	// ----- All methods below this point are for testing -----
+	// ----- and will not be used in the game.            -----
+	
+	private void checkFillGrid(int xcam, int ycam, Graphics2D g2d) {
 		g2d.setColor(Color.GREEN);
 		for (int y = pf.gridHeight() - 1; y >= 0; --y) {
 			for (int x = 0; x < pf.gridWidth(); ++x) {
@@ -0,0 +1,355 @@
+/*
+ * GameWorld.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.util.ArrayList;
+
+import playfield.Playfield;
+
+import entity.*;
+
+/**
+ * The state of a running game and the logic of one simulation tick:
+ * the playfield, the active region around the player, the fireball
+ * counters and the camera. Nothing here depends on Swing or on any
+ * sprite being loaded, so the same world runs in the windowed game
+ * (GameApp) and in headless runs (HeadlessApp).
+ *
+ * Input is given to 'tick' as a mask of the KEY_ bits, so that it can
+ * come from the keyboard, a script or a recording.
+ *
+ * The active entities act one after another, or, when an executor is
+ * set, on several threads at once (see TickExecutor).
+ *
+ * When phase timing is switched on, the time spent in each phase of
+ * the tick is added up in nanoseconds (see PHASE_ constants).
+ *
+ */
+public class GameWorld
+{
+    private static final boolean VERBOSE = false;
+
+    // Input bits for 'tick'.
+    public static final int KEY_LEFT = 1;
+    public static final int KEY_RIGHT = 2;
+    public static final int KEY_UP = 4;
+    public static final int KEY_DOWN = 8;
+    public static final int KEY_Z = 16;
+    public static final int KEY_X = 32;
+    public static final int KEY_C = 64;
+    public static final int KEY_V = 128;
+    public static final int KEY_SPECIAL = KEY_Z | KEY_X | KEY_C | KEY_V;
+    public static final int KEY_FASTER = 256;   // speed up by one (a press, not held)
+    public static final int KEY_SLOWER = 512;   // slow down by one (a press, not held)
+    public static final int KEY_ALL = 4095;
+
+    // Bits of the tick input giving the load level of the frame
+    //   governor (see FrameGovernor), which is part of the input so
+    //   that a recorded session replays exactly.
+    public static final int KEY_LEVEL_SHIFT = 10;
+    public static final int KEY_LEVEL = 3 << KEY_LEVEL_SHIFT;
+
+    // The phases of a tick, for timing.
+    public static final int PHASE_PLAYER = 0;
+    public static final int PHASE_ACTIVATE = 1;
+    public static final int PHASE_ACT = 2;
+    public static final int PHASE_DEACTIVATE = 3;
+    public static final int PHASE_CAMERA = 4;
+    public static final int NUM_PHASES = 5;
+    public static final String[] PHASE_NAMES = {
+        "player", "activate", "act", "deactivate", "camera"
+    };
+
+    // Length of a tick, in milliseconds (for 60 FPS, use 15).
+    public static final long MILLIS_PER_TICK = 15;
+
+    // The dimensions of the "active region", i.e., the region within
+    //   which certain entities are capable of moving and acting.
+    public static final int activeRegionWidth = 2048;
+    public static final int activeRegionHeight = 1536;
+
+    // Size of the view the camera follows the player with.
+    public static final int VIEW_WIDTH = 640;
+    public static final int VIEW_HEIGHT = 480;
+
+    // The playfield and the player.
+    public final Playfield pf;
+    private final Player ply;
+
+    // The entities acting in the current tick, and the fireball
+    //   counters, kept between ticks.
+    private ArrayList<Entity> acting = new ArrayList<Entity>();
+    private TickExecutor executor = null;
+    private TickRates rates = TickRates.fromOptions(new GameOptions());
+    private static final int fireballDelay = 4;
+    private int fireballRecoveryTime = 0;
+
+    // Camera position (lower-left corner of the view), and where it
+    //   was at the start of the last tick.
+    private int xcam = 0;
+    private int ycam = 0;
+    private int prevXcam = 0;
+    private int prevYcam = 0;
+
+    // Number of ticks run so far, and the input of the last one.
+    private long tickCount = 0;
+    private int lastKeys = 0;
+
+    // Phase timing.
+    private boolean timePhases = false;
+    private final long[] phaseNanos = new long[NUM_PHASES];
+
+    // Constructor. Loads the level in the given file and activates
+    //   every entity near the player's starting point. The tables
+    //   in DragoStatics and the collision table must be loaded first.
+    public GameWorld(String levelFile) {
+        pf = new Playfield();
+        pf.loadLevel(levelFile);
+        pf.createActiveRegion(activeRegionWidth, activeRegionHeight);
+        ply = pf.player;
+        activateAll();
+        setCamera();
+        prevXcam = xcam;
+        prevYcam = ycam;
+    }
+
+    public Player getPlayer() { return ply; }
+    public int getXCam() { return xcam; }
+    public int getYCam() { return ycam; }
+    public int getPrevXCam() { return prevXcam; }
+    public int getPrevYCam() { return prevYcam; }
+    public long getTickCount() { return tickCount; }
+    public int getLastKeys() { return lastKeys; }
+
+    // Set the executor the active entities act on (null to let them
+    //   act one after another).
+    public void setExecutor(TickExecutor executor) { this.executor = executor; }
+
+    // Set the rates of the simulation systems.
+    public void setRates(TickRates rates) { this.rates = rates; }
+    public TickRates getRates() { return rates; }
+
+    // Switch timing of the tick phases on or off.
+    public void setTimePhases(boolean on) { timePhases = on; }
+
+    // Total time spent in a phase (see PHASE_ constants), in nanoseconds.
+    public long getPhaseNanos(int phase) { return phaseNanos[phase]; }
+
+    // Initialize active entity list by adding all enemies near
+    //   the player's starting point.
+    private void activateAll() {
+        pf.getActiveRegion().moveTo(ply.x(), ply.y());
+    }
+
+    // Run one tick of the game: player input, the player's action,
+    //   the active region and the action of every active entity.
+    //   'keys' holds the KEY_ bits of the keys held down, and the
+    //   load level.
+    public void tick(int keys) {
+
+        savePositions();
+        lastKeys = keys;
+        setDetail((keys & KEY_LEVEL) >> KEY_LEVEL_SHIFT);
+        long t0 = timePhases ? System.nanoTime() : 0;
+        tickPlayer(keys);
+        long t1 = timePhases ? System.nanoTime() : 0;
+        activateLeading();
+        long t2 = timePhases ? System.nanoTime() : 0;
+        actAll();
+        long t3 = timePhases ? System.nanoTime() : 0;
+        deactivateFar();
+        long t4 = timePhases ? System.nanoTime() : 0;
+        setCamera();
+        if (timePhases) {
+            long t5 = System.nanoTime();
+            phaseNanos[PHASE_PLAYER] += t1 - t0;
+            phaseNanos[PHASE_ACTIVATE] += t2 - t1;
+            phaseNanos[PHASE_ACT] += t3 - t2;
+            phaseNanos[PHASE_DEACTIVATE] += t4 - t3;
+            phaseNanos[PHASE_CAMERA] += t5 - t4;
+        }
+        ++tickCount;
+
+    } // end method tick
+
+    // Save the camera, and the position of the player and every active
+    //   entity (those that may move), as they are at the start of the
+    //   tick, for drawing in between ticks (see Entity.savePosition).
+    private void savePositions() {
+        prevXcam = xcam;
+        prevYcam = ycam;
+        ply.savePosition(tickCount);
+        for (int i = 0; i < pf.numActiveEntities(); ++i) {
+            pf.getActiveEntity(i).savePosition(tickCount);
+        }
+    }
+
+    // Set the detail entities may skip at the given load level, and
+    //   the view they are seen in.
+    private void setDetail(int level) {
+        pf.setDetail(
+                rates.getSearchTicks(),
+                (level >= FrameGovernor.LEVEL_FAR_AI) ? FrameGovernor.FAR_SEARCH_TICKS : 1,
+                rates.getAnimTicks(),
+                (level >= FrameGovernor.LEVEL_ANIMATION) ? FrameGovernor.OFFSCREEN_ANIM_TICKS : 1);
+        pf.setView(xcam, ycam, VIEW_WIDTH, VIEW_HEIGHT);
+    }
+
+    // Apply the player's input, then let the player act.
+    private void tickPlayer(int keys) {
+
+        // Speed changes apply in any state.
+        if ((keys & KEY_FASTER) != 0) ply.addSpeed(1);
+        if ((keys & KEY_SLOWER) != 0) ply.addSpeed(-1);
+
+        // If player is in a standing or walking state, allow the player
+        //   to change his/her own dx, dy. Also allow player to use
+        //   special abilities.
+        if (    ply.getState() == Entity.ST_PLAYER_STANDING
+             || ply.getState() == Entity.ST_PLAYER_WALKING )
+        {
+            // Adjust player's dx/dy if player wants to walk.
+            int speed = ply.getSpeed();
+            if ((keys & KEY_UP) != 0) ply.setdy(speed);
+            else if ((keys & KEY_DOWN) != 0) ply.setdy(-speed);
+            else ply.setdy(0);
+            if ((keys & KEY_LEFT) != 0) ply.setdx(-speed);
+            else if ((keys & KEY_RIGHT) != 0) ply.setdx(speed);
+            else ply.setdx(0);
+
+            // Set direction facing based on dx/dy.
+            int dir = ply.getFacing();
+            if      (ply.dx() <  0 && ply.dy() <  0) dir = Entity.F_DOWN_LEFT;
+            else if (ply.dx() <  0 && ply.dy() == 0) dir = Entity.F_LEFT;
+            else if (ply.dx() <  0 && ply.dy() >  0) dir = Entity.F_UP_LEFT;
+            else if (ply.dx() == 0 && ply.dy() <  0) dir = Entity.F_DOWN;
+            else if (ply.dx() == 0 && ply.dy() >  0) dir = Entity.F_UP;
+            else if (ply.dx() >  0 && ply.dy() <  0) dir = Entity.F_DOWN_RIGHT;
+            else if (ply.dx() >  0 && ply.dy() == 0) dir = Entity.F_RIGHT;
+            else if (ply.dx() >  0 && ply.dy() >  0) dir = Entity.F_UP_RIGHT;
+            ply.setFacing(dir);
+
+            // If now walking, set state to 'walking'. Otherwise, if now standing,
+            //   set state to 'standing'.
+            if (ply.dx() != 0 || ply.dy() != 0) {
+                if (ply.getState() != Entity.ST_PLAYER_WALKING) {
+                    ply.setState(Entity.ST_PLAYER_WALKING);
+                    ply.setStateCounter(40);
+                }
+            }
+            else ply.setState(Entity.ST_PLAYER_STANDING);
+
+            // Special ability 1: fireball (granted from start of game).
+            if (((keys & KEY_SPECIAL) != 0) && (fireballRecoveryTime == 0)) {
+                Fireball fb = new Fireball(
+                        ply.x(),
+                        ply.y(),
+                        Entity.getStringForFacing(ply.getFacing()),
+                        pf);
+                pf.addEntity(fb);
+                pf.addActiveEntity(fb);
+                fb.addWhereFacing(14, false);
+                fireballRecoveryTime = fireballDelay;
+                DragoStatics.playSound("FIREBALL_1.wav");
+            }
+            else if (fireballRecoveryTime > 0) --fireballRecoveryTime;
+
+        } // end if (player can stand/walk)
+
+        // Let the player act.
+        ply.act();
+
+    } // end method tickPlayer
+
+    // Move the active region with the player, so that any entities
+    //   now within it are added to the active entity list of the
+    //   playfield.
+    private void activateLeading() {
+        pf.getActiveRegion().moveTo(ply.x(), ply.y());
+    }
+
+    // Tell each entity within the active region that is due to act
+    //   (see TickRates) to act one framestep. The list is copied
+    //   first, as acting may add entities to it or remove them; an
+    //   entity removed before its turn does not act.
+    private void actAll() {
+        acting.clear();
+        for (int i = 0; i < pf.numActiveEntities(); ++i) {
+            Entity t = pf.getActiveEntity(i);
+            if (t != ply && rates.isDue(t, ply, tickCount)) acting.add(t);
+        }
+        if (executor != null) {
+            executor.actAll(acting);
+            acting.clear();
+            return;
+        }
+        for (int i = 0; i < acting.size(); ++i) {
+            Entity t = acting.get(i);
+            if (!pf.isActive(t)) continue;
+            int oldentx = t.x();
+            int oldenty = t.y();
+            if (!(t instanceof Player)) t.act();
+            if (t instanceof Fireball) {
+                if (VERBOSE) System.out.println("Old fireball position: (" + oldentx
+                        + ", " + oldenty + "), new fireball position: (" + t.x()
+                        + ", " + t.y() + ")");
+                if (VERBOSE) System.out.println("Player's position: (" + ply.x()
+                        + ", " + ply.y() + ")");
+            }
+        }
+        acting.clear();
+    }
+
+    // If any active entities are now off the active region,
+    //   remove them from the active entity list (see ActiveRegion;
+    //   fireballs and explosions are never removed this way).
+    private void deactivateFar() {
+        pf.getActiveRegion().commit();
+    }
+
+    // Get a hash of the state of the world: the tick count and the
+    //   position, motion, state and health of every entity, in the
+    //   order of the playfield's list. Two runs from the same seed
+    //   and input have the same hash after every tick.
+    public long stateHash() {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, (int)tickCount);
+        h = mix(h, pf.numEntities());
+        for (int i = 0; i < pf.numEntities(); ++i) {
+            Entity t = pf.getEntity(i);
+            h = mix(h, t.x());
+            h = mix(h, t.y());
+            h = mix(h, t.dx());
+            h = mix(h, t.dy());
+            h = mix(h, t.getState());
+            h = mix(h, t.getStateCounter());
+            h = mix(h, t.getFacing());
+            h = mix(h, t.getHealth());
+        }
+        return h;
+    }
+
+    // Mix one value into a hash (FNV-1a over its four bytes).
+    private static long mix(long h, int v) {
+        for (int i = 0; i < 4; ++i) {
+            h ^= (v >>> (i << 3)) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Set the camera based on player's position.
+    private void setCamera() {
+        xcam = ply.x() - (VIEW_WIDTH>>1);
+        ycam = ply.y() - (VIEW_HEIGHT>>1);
+        if (xcam < 0) xcam = 0;
+        if (xcam > pf.levelWidth() - VIEW_WIDTH)
+            xcam = pf.levelWidth() - VIEW_WIDTH;
+        if (ycam < 0) ycam = 0;
+        if (ycam > pf.levelHeight() - VIEW_HEIGHT)
+            ycam = pf.levelHeight() - VIEW_HEIGHT;
+    }
+
+} // end class GameWorld
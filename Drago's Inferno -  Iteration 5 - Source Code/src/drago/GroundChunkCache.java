@@ -0,0 +1,370 @@
+/*
+ * GroundChunkCache.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import playfield.Playfield;
+
+import entity.Entity;
+
+/**
+ * The ground layer of the playfield, baked into square chunk images
+ * so that a frame draws a few chunks instead of two triangle sprites
+ * for every visible grid square. The ground never changes, so a chunk
+ * is painted once (by GamePanel.drawGroundSquare) and then reused.
+ *
+ * Chunks are built when first seen, and ahead of time so that
+ * scrolling need not wait for them. With prefetch threads, the chunks
+ * the view will reach in the next few ticks, going by the player's
+ * velocity (the camera follows the player), are built on those
+ * threads, followed by the ring of chunks around the view. At most a
+ * set number of chunks are queued or being built at once, and those
+ * no longer predicted are cancelled. Without prefetch threads, one
+ * chunk of the ring is built per frame instead. The least recently
+ * drawn chunks are dropped when the cache grows past its memory
+ * budget.
+ *
+ * Chunk images are never changed once built, so the renderer may keep
+ * drawing one after it has been dropped. The cache itself is used by
+ * the simulation thread only (in GamePanel.captureFrame); prefetched
+ * chunks are added to it there, once built. Building a chunk reads
+ * nothing that changes during play.
+ *
+ */
+public class GroundChunkCache
+{
+    public static final int DEFAULT_SIZE = 512;
+    public static final int DEFAULT_BUDGET_MB = 32;
+    public static final int DEFAULT_PREFETCH_THREADS = 1;
+    public static final int DEFAULT_LOOKAHEAD = 30;
+    public static final int DEFAULT_QUEUE_DEPTH = 8;
+
+    private final GamePanel panel;
+
+    // Chunk side in pixels (a power of two, at least one grid square),
+    //   its log2, and the grid squares along a side.
+    private final int size;
+    private final int shift;
+    private final int squares;
+
+    // Largest number of chunks kept.
+    private final int maxChunks;
+
+    // The playfield the chunks were built from.
+    private Playfield pf = null;
+
+    // The chunks, keyed by chunk column and row, in order of use.
+    private final LinkedHashMap<Long, BufferedImage> chunks;
+
+    // Number of chunks built since the cache was made, on this thread
+    //   and by prefetching, and the prefetches cancelled.
+    private long built = 0;
+    private long prefetched = 0;
+    private long cancelled = 0;
+
+    // Prefetching: the worker threads (null for none), the ticks of
+    //   player motion looked ahead, the most chunks queued or being
+    //   built at once, and those chunks.
+    private final ThreadPoolExecutor pool;
+    private final int lookahead;
+    private final int queueDepth;
+    private final HashMap<Long, Future<BufferedImage>> pending =
+            new HashMap<Long, Future<BufferedImage>>();
+
+    // The chunks wanted ahead of time this frame (reused).
+    private final HashSet<Long> wanted = new HashSet<Long>();
+
+    // Constructor, with no prefetching. 'size' is the chunk side in
+    //   pixels, 'budgetMB' the memory the chunks may take, in
+    //   megabytes.
+    public GroundChunkCache(GamePanel panel, int size, int budgetMB) {
+        this(panel, size, budgetMB, 0, DEFAULT_LOOKAHEAD, DEFAULT_QUEUE_DEPTH);
+    }
+
+    // Constructor. Chunks are prefetched on 'threads' threads (none if
+    //   0), 'lookahead' ticks ahead, with at most 'queueDepth' chunks
+    //   queued or being built.
+    public GroundChunkCache(GamePanel panel, int size, int budgetMB,
+                            int threads, int lookahead, int queueDepth) {
+        if (size < 32 || Integer.bitCount(size) != 1)
+            error("GroundChunkCache", "chunk size must be a power of two of at least 32");
+        this.panel = panel;
+        this.size = size;
+        this.shift = Integer.numberOfTrailingZeros(size);
+        this.squares = size >> 5;
+        long bytes = (long)size * size * 4;
+        this.maxChunks = (int)Math.max(1, ((long)budgetMB << 20) / bytes);
+        this.chunks = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+                return size() > maxChunks;
+            }
+        };
+        this.lookahead = lookahead;
+        this.queueDepth = queueDepth;
+        if (threads > 0) {
+            // The queue holds at most the chunks pending (those cancelled
+            //   are taken off it, see 'cancel'), so a chunk is never
+            //   refused.
+            this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(queueDepth),
+                    new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "Chunk prefetch");
+                            t.setDaemon(true);
+                            t.setPriority(Thread.MIN_PRIORITY);
+                            return t;
+                        }
+                    });
+        }
+        else this.pool = null;
+    }
+
+    public int getChunkSize() { return size; }
+    public int numChunks() { return chunks.size(); }
+    public int getMaxChunks() { return maxChunks; }
+    public long getBuilt() { return built; }
+    public long getPrefetched() { return prefetched; }
+    public long getCancelled() { return cancelled; }
+
+    // Drop all chunks, and cancel those being prefetched.
+    public void clear() {
+        chunks.clear();
+        for (Future<BufferedImage> f : pending.values()) cancel(f);
+        pending.clear();
+    }
+
+    // Stop the prefetch threads.
+    public void shutdown() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    // Add the chunks covering the view of the given snapshot to its
+    //   ground draw list, building any not yet cached.
+    public void capture(FrameSnapshot s, Playfield pf) {
+        if (pf != this.pf) {
+            clear();
+            this.pf = pf;
+        }
+        int xcam = s.xcam;
+        int ycam = s.ycam;
+        if (pool != null) collect();
+
+        // Chunks in view, now or at the start of the tick, clipped to
+        //   the playfield.
+        int xcam0 = xcam - s.camBackx;
+        int ycam0 = ycam + s.camBacky;
+        int cx1 = Math.max(Math.min(xcam, xcam0) >> shift, 0);
+        int cx2 = Math.min((Math.max(xcam, xcam0) + 639) >> shift, lastColumn());
+        int cy1 = Math.max(Math.min(ycam, ycam0) >> shift, 0);
+        int cy2 = Math.min((Math.max(ycam, ycam0) + 479) >> shift, lastRow());
+        for (int cy = cy2; cy >= cy1; --cy) {
+            for (int cx = cx1; cx <= cx2; ++cx) {
+                int xs = (cx << shift) - xcam;
+                int ys = 480 - ((cy << shift) + size - ycam);
+                s.ground.add(getChunk(cx, cy), xs, ys, 0, s.camBackx, s.camBacky);
+            }
+        }
+
+        if (pool != null) {
+            prefetch(pf.player, xcam, ycam, cx1, cx2, cy1, cy2);
+            return;
+        }
+
+        // Build one chunk of the ring around the view ahead of time,
+        //   if the budget leaves room for it beside those in view.
+        if (maxChunks < (cx2 - cx1 + 3) * (cy2 - cy1 + 3)) return;
+        for (int cy = cy1 - 1; cy <= cy2 + 1; ++cy) {
+            for (int cx = cx1 - 1; cx <= cx2 + 1; ++cx) {
+                if (cx < 0 || cx > lastColumn() || cy < 0 || cy > lastRow()) continue;
+                if (cx >= cx1 && cx <= cx2 && cy >= cy1 && cy <= cy2) continue;
+                Long key = key(cx, cy);
+                if (chunks.containsKey(key)) continue;
+                chunks.put(key, build(pf, cx, cy));
+                ++built;
+                return;
+            }
+        }
+    } // end method capture
+
+    // Queue the chunks the view is predicted to reach, nearest first,
+    //   then those of the ring around it, and cancel any queued that
+    //   are no longer wanted. The view (in chunks) is given, with the
+    //   camera.
+    private void prefetch(Entity player, int xcam, int ycam,
+                          int cx1, int cx2, int cy1, int cy2) {
+
+        // Chunks beside those in view that the budget leaves room for.
+        int room = maxChunks - (cx2 - cx1 + 1) * (cy2 - cy1 + 1);
+        wanted.clear();
+
+        // The view after each of the next ticks, if the player keeps
+        //   going as it is.
+        int dx = player.dx();
+        int dy = player.dy();
+        if (dx != 0 || dy != 0) {
+            for (int k = 1; k <= lookahead && wanted.size() < room; ++k) {
+                int x = xcam + k*dx;
+                int y = ycam + k*dy;
+                want(x >> shift, (x + 639) >> shift, y >> shift, (y + 479) >> shift,
+                        cx1, cx2, cy1, cy2, room);
+            }
+        }
+
+        // The ring around the view.
+        want(cx1 - 1, cx2 + 1, cy1 - 1, cy2 + 1, cx1, cx2, cy1, cy2, room);
+
+        // Cancel the chunks pending that are not wanted.
+        Iterator<Map.Entry<Long, Future<BufferedImage>>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Future<BufferedImage>> e = it.next();
+            if (wanted.contains(e.getKey())) continue;
+            cancel(e.getValue());
+            it.remove();
+            ++cancelled;
+        }
+    } // end method prefetch
+
+    // Want the chunks of the given range, clipped to the playfield,
+    //   other than those in view, and queue any not cached or pending,
+    //   while there is room.
+    private void want(int x1, int x2, int y1, int y2,
+                      int cx1, int cx2, int cy1, int cy2, int room) {
+        x1 = Math.max(x1, 0);
+        x2 = Math.min(x2, lastColumn());
+        y1 = Math.max(y1, 0);
+        y2 = Math.min(y2, lastRow());
+        for (int cy = y1; cy <= y2; ++cy) {
+            for (int cx = x1; cx <= x2; ++cx) {
+                if (cx >= cx1 && cx <= cx2 && cy >= cy1 && cy <= cy2) continue;
+                if (wanted.size() >= room) return;
+                Long key = key(cx, cy);
+                if (!wanted.add(key)) continue;
+                if (chunks.containsKey(key) || pending.containsKey(key)) continue;
+                if (pending.size() >= queueDepth) continue;
+                pending.put(key, pool.submit(new Build(pf, cx, cy)));
+            }
+        }
+    }
+
+    // Cancel a chunk pending, if not started, and take it off the
+    //   pool's queue at once (a cancelled task is otherwise left there,
+    //   taking room, until a thread gets to it). Returns false if the
+    //   chunk was started, and so will be built.
+    private boolean cancel(Future<BufferedImage> f) {
+        if (!f.cancel(false)) return false;
+        pool.remove((Runnable)f);
+        return true;
+    }
+
+    // Add the prefetched chunks that are built to the cache.
+    private void collect() {
+        Iterator<Map.Entry<Long, Future<BufferedImage>>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Future<BufferedImage>> e = it.next();
+            if (!e.getValue().isDone()) continue;
+            it.remove();
+            chunks.put(e.getKey(), result(e.getValue()));
+            ++prefetched;
+        }
+    }
+
+    // Get a chunk, building it if not cached. A chunk still queued for
+    //   prefetching is built here instead; one being built is waited
+    //   for.
+    private BufferedImage getChunk(int cx, int cy) {
+        Long key = key(cx, cy);
+        BufferedImage chunk = chunks.get(key);
+        if (chunk == null) {
+            Future<BufferedImage> f = pending.remove(key);
+            if (f != null && !cancel(f)) {
+                chunk = result(f);
+                ++prefetched;
+            }
+            else {
+                chunk = build(pf, cx, cy);
+                ++built;
+            }
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    // Get the chunk a prefetch has built, waiting for it if need be.
+    private BufferedImage result(Future<BufferedImage> f) {
+        try {
+            return f.get();
+        }
+        catch (InterruptedException e) {
+            error("result", "interrupted waiting for a chunk");
+        }
+        catch (ExecutionException e) {
+            error("result", "chunk prefetch failed (" + e.getCause() + ")");
+        }
+        return null;
+    }
+
+    // A prefetch: build one chunk of a playfield.
+    private class Build implements Callable<BufferedImage>
+    {
+        private final Playfield pf;
+        private final int cx, cy;
+
+        Build(Playfield pf, int cx, int cy) {
+            this.pf = pf;
+            this.cx = cx;
+            this.cy = cy;
+        }
+
+        public BufferedImage call() {
+            return build(pf, cx, cy);
+        }
+    }
+
+    // Paint the ground of a chunk. Squares outside the playfield, and
+    //   the halves of squares under walls, are left transparent. May
+    //   run on a prefetch thread.
+    private BufferedImage build(Playfield pf, int cx, int cy) {
+        BufferedImage chunk = SpriteAtlas.GAME.createImage(size, size);
+        Graphics2D g2d = chunk.createGraphics();
+        int gx = cx * squares;
+        int gy = cy * squares;
+        for (int y = gy; y < gy + squares && y < pf.gridHeight(); ++y) {
+            for (int x = gx; x < gx + squares && x < pf.gridWidth(); ++x) {
+                int xsprite = (x - gx) << 5;
+                int ysprite = size - ((y - gy) << 5) - 32;
+                panel.drawGroundSquare(pf, x, y, xsprite, ysprite, g2d);
+            }
+        }
+        g2d.dispose();
+        return chunk;
+    }
+
+    private int lastColumn() { return (pf.gridWidth() - 1) / squares; }
+    private int lastRow() { return (pf.gridHeight() - 1) / squares; }
+
+    private static Long key(int cx, int cy) {
+        return Long.valueOf(((long)cx << 32) | (cy & 0xffffffffL));
+    }
+
+    private static void error(String function, String message) {
+        System.out.println("GroundChunkCache." + function + "(): " + message);
+        System.exit(1);
+    }
+
+} // end class GroundChunkCache
@@ -0,0 +1,209 @@
+/*
+ * HeadlessApp.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import entity.Archer;
+import entity.CollisionTable;
+import entity.Entity;
+
+/**
+ * Runs the game with no window, no sprites and no sound, as fast as
+ * the CPU allows, for soak tests and performance runs. The run lasts
+ * a given number of ticks or until a stop condition is met, and ends
+ * with a report of ticks per second and the time spent in each phase
+ * of the tick.
+ *
+ * Options (see GameOptions):
+ *   -ticks=N               number of ticks to run (default 10000)
+ *   -until=dead|cleared    stop early when the player dies or no
+ *                            archers are left
+ *   -input=none|wander     player stands still (the default), or
+ *                            walks in random directions firing
+ *   -tick=serial|parallel  entities act one after another, or on
+ *                            several threads (the default)
+ *   -threads=N             number of threads (default: one per CPU)
+ *   -level=FILE            level to play
+ *   -seed=N                seed of the random number table
+ *   -record=FILE           record the run to a replay file
+ *   -replay=FILE           play back a replay file (its seed, level,
+ *                            tick mode and input), checking the state
+ *                            hashes recorded in it
+ *   -hashevery=N           ticks between hashes recorded (default 100)
+ *   -detail=N              fixed load level (see FrameGovernor)
+ *   -rings=D1,D2,...       distance rings around the player, and the
+ *   -ringticks=T0,T1,...     ticks between actions in each (see
+ *                            TickRates)
+ *   -searchhz=N            rate of archer path searches
+ *   -animhz=N              rate of animation
+ *
+ * e.g. 'java drago.HeadlessApp -ticks=50000 -until=dead'
+ *      'java drago.HeadlessApp -replay=session.rpl'
+ *
+ */
+public class HeadlessApp
+{
+    // Stop conditions.
+    public static final int UNTIL_NONE = 0;
+    public static final int UNTIL_DEAD = 1;
+    public static final int UNTIL_CLEARED = 2;
+
+    // Input sources.
+    public static final int INPUT_NONE = 0;
+    public static final int INPUT_WANDER = 1;
+
+    // Number of ticks the wandering player keeps to one direction.
+    private static final int WANDER_TICKS = 64;
+
+    // The directions the wandering player may walk in.
+    private static final int[] WANDER_KEYS = {
+        GameWorld.KEY_UP,
+        GameWorld.KEY_UP | GameWorld.KEY_RIGHT,
+        GameWorld.KEY_RIGHT,
+        GameWorld.KEY_DOWN | GameWorld.KEY_RIGHT,
+        GameWorld.KEY_DOWN,
+        GameWorld.KEY_DOWN | GameWorld.KEY_LEFT,
+        GameWorld.KEY_LEFT,
+        GameWorld.KEY_UP | GameWorld.KEY_LEFT
+    };
+
+    public static void main(String[] args) {
+
+        // Read the command-line options.
+        GameOptions options = GameOptions.parse(args);
+
+        // A replay decides the seed, level, tick mode and length of
+        //   the run.
+        ReplayReader replay = null;
+        if (options.replay != null) {
+            replay = new ReplayReader(options.replay);
+            options.hasSeed = true;
+            options.seed = replay.getSeed();
+            options.level = replay.getLevel();
+            options.tickMode = replay.getTickMode();
+            options.ticks = replay.getTicks();
+        }
+        TickRates rates = (replay != null) ? replay.getRates() : TickRates.fromOptions(options);
+
+        // Load tables (but no sprites or sounds).
+        DragoStatics.loadRandoms(options.hasSeed ? options.seed : System.nanoTime());
+        DragoStatics.loadSquareRootTable();
+        CollisionTable.load();
+        DragoStatics.soundEnabled = false;
+
+        // Load the level.
+        long loadStart = System.nanoTime();
+        GameWorld world = new GameWorld(options.level);
+        world.setRates(rates);
+        long loadNanos = System.nanoTime() - loadStart;
+        TickExecutor executor = null;
+        if (options.tickMode == TickExecutor.MODE_PARALLEL) {
+            executor = new TickExecutor(world.pf, options.threads);
+            world.setExecutor(executor);
+        }
+        ReplayWriter recorder = null;
+        if (options.record != null) {
+            recorder = new ReplayWriter(options.record, DragoStatics.randomSeed,
+                    options.level, options.tickMode, rates, options.hashEvery);
+            recorder.hash(0, world.stateHash());
+        }
+
+        // Run the ticks, at the load level asked for.
+        int level = Math.max(options.detail, FrameGovernor.LEVEL_NORMAL) << GameWorld.KEY_LEVEL_SHIFT;
+        world.setTimePhases(true);
+        long start = System.nanoTime();
+        String stopReason = "tick limit";
+        boolean failed = false;
+        try {
+            for (int i = 0; i < options.ticks; ++i) {
+                int keys = (replay != null) ? replay.getKeys(i) : getKeys(options.input, i) | level;
+                if (recorder != null) recorder.tick(keys);
+                world.tick(keys);
+                long tick = world.getTickCount();
+                if (recorder != null) recorder.hash(tick, world.stateHash());
+                if (replay != null && replay.hasHash(tick) && replay.getHash(tick) != world.stateHash()) {
+                    stopReason = "replay diverged by tick " + tick;
+                    failed = true;
+                    break;
+                }
+                if (replay == null && isMet(options.until, world)) {
+                    stopReason = (options.until == UNTIL_DEAD) ? "player dead" : "level cleared";
+                    break;
+                }
+            }
+        }
+        catch (RuntimeException e) {
+
+            // Report what was run up to the failure, which is the
+            //   point of a soak test.
+            e.printStackTrace();
+            stopReason = "failed in tick " + world.getTickCount() + ": " + e;
+            failed = true;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (executor != null) executor.shutdown();
+        if (recorder != null) recorder.close();
+
+        report(world, executor, loadNanos, elapsed, stopReason);
+        if (failed) System.exit(1);
+
+    } // end main
+
+    // Get the input for the given tick.
+    private static int getKeys(int input, int tick) {
+        if (input == INPUT_NONE) return 0;
+        int r = DragoStatics.randomList[(tick / WANDER_TICKS) % DragoStatics.NUM_RANDOMS];
+        return WANDER_KEYS[r % WANDER_KEYS.length] | GameWorld.KEY_Z;
+    }
+
+    // Check whether the stop condition is met.
+    private static boolean isMet(int until, GameWorld world) {
+        switch (until) {
+        case UNTIL_DEAD:
+            return world.getPlayer().getState() == Entity.ST_PLAYER_DEAD;
+        case UNTIL_CLEARED:
+            for (int i = 0; i < world.pf.numEntities(); ++i) {
+                if (world.pf.getEntity(i) instanceof Archer) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Print the results of the run.
+    private static void report(GameWorld world, TickExecutor executor,
+                               long loadNanos, long elapsed, String stopReason) {
+        long ticks = world.getTickCount();
+        System.out.println("Level loaded in " + String.format("%.1f", loadNanos / 1e6) + " ms");
+        System.out.println("Tick mode: " + ((executor == null) ? "serial"
+                : "parallel, " + executor.getThreads() + " thread(s)"));
+        System.out.println("Random seed: " + DragoStatics.randomSeed);
+        int level = (world.getLastKeys() & GameWorld.KEY_LEVEL) >> GameWorld.KEY_LEVEL_SHIFT;
+        System.out.println("Load level: " + level + " (" + FrameGovernor.LEVEL_NAMES[level] + ")");
+        System.out.println("Ran " + ticks + " ticks in "
+                + String.format("%.1f", elapsed / 1e6) + " ms (" + stopReason + ")");
+        if (elapsed > 0) {
+            System.out.println("Ticks per second: "
+                    + String.format("%.0f", ticks * 1e9 / elapsed));
+        }
+        long phaseTotal = 0;
+        for (int p = 0; p < GameWorld.NUM_PHASES; ++p) phaseTotal += world.getPhaseNanos(p);
+        System.out.println("Phase          total ms   us/tick   share");
+        for (int p = 0; p < GameWorld.NUM_PHASES; ++p) {
+            long nanos = world.getPhaseNanos(p);
+            System.out.println(String.format("%-12s %10.1f %9.2f %6.1f%%",
+                    GameWorld.PHASE_NAMES[p],
+                    nanos / 1e6,
+                    (ticks > 0) ? nanos / 1e3 / ticks : 0.0,
+                    (phaseTotal > 0) ? 100.0 * nanos / phaseTotal : 0.0));
+        }
+        System.out.println("Entities: " + world.pf.numEntities()
+                + " (" + world.pf.numActiveEntities() + " active, "
+                + world.pf.numDormantEntities() + " dormant)");
+        System.out.println("Player at (" + world.getPlayer().x() + ", "
+                + world.getPlayer().y() + "), health " + world.getPlayer().getHealth());
+        System.out.println("State hash: " + Long.toHexString(world.stateHash()));
+    }
+
+} // end class HeadlessApp
@@ -0,0 +1,159 @@
+/*
+ * InputQueue.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carries input events from the Swing event thread to the game loop
+ * without locking. Exactly one thread may offer events (the event
+ * thread) and exactly one may poll them (the game loop), which lets
+ * the queue be a ring of preallocated slots with two counters: the
+ * producer only writes 'tail' and the consumer only writes 'head'.
+ *
+ * Each event is stamped with the time it was offered, and the game
+ * loop reports when it has applied an event ('applied'), so that the
+ * delay from key press to tick (average and maximum over the last
+ * second) can be shown on the dashboard.
+ *
+ * A release is never lost: one that finds the ring full is kept in a
+ * mask of released keys instead, which the consumer takes (with
+ * 'takeDroppedReleases') after the events queued, all of which came
+ * before it. A later press of the key takes it back out of the mask.
+ *
+ */
+public class InputQueue
+{
+    // Kinds of event.
+    public static final int EV_PRESS = 0;    // value is a GameWorld.KEY_ bit
+    public static final int EV_RELEASE = 1;  // value is a GameWorld.KEY_ bit
+    public static final int EV_SPEED = 2;    // value is +1 (faster) or -1 (slower)
+
+    private static final long SECOND = 1000000000L;
+
+    // The slots of the ring (a power of two in number).
+    private final int mask;
+    private final int[] kinds;
+    private final int[] values;
+    private final long[] times;
+
+    // Number of events polled, and number offered. Each side reads
+    //   the other's counter to see how far it may go.
+    private final AtomicLong head = new AtomicLong(0);
+    private final AtomicLong tail = new AtomicLong(0);
+
+    // The event last polled (consumer only).
+    private int kind;
+    private int value;
+    private long time;
+
+    // Number of events dropped because the ring was full, and the keys
+    //   whose release found it full (see 'takeDroppedReleases').
+    private volatile long dropped = 0;
+    private final AtomicInteger droppedReleases = new AtomicInteger(0);
+
+    // Latency figures (consumer only).
+    private long windowStart = 0;
+    private long windowCount = 0;
+    private long windowSum = 0;
+    private long windowMax = 0;
+    private double latencyAvgMillis = 0.0;
+    private double latencyMaxMillis = 0.0;
+
+    // Constructor. The capacity is rounded up to a power of two.
+    public InputQueue(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mask = n - 1;
+        kinds = new int[n];
+        values = new int[n];
+        times = new long[n];
+    }
+
+    // Add an event (producer). Returns false, dropping the event, if
+    //   the ring is full (a release is kept aside instead).
+    public boolean offer(int kind, int value) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            if (kind == EV_RELEASE) {
+                setBits(droppedReleases, value);
+                return true;
+            }
+            ++dropped;
+            return false;
+        }
+        if (kind == EV_PRESS) clearBits(droppedReleases, value);
+        int i = (int)t & mask;
+        kinds[i] = kind;
+        values[i] = value;
+        times[i] = System.nanoTime();
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Take the oldest event (consumer). Returns false if there is
+    //   none; otherwise the event can be read with 'kind', 'value'
+    //   and 'time'.
+    public boolean poll() {
+        long h = head.get();
+        if (h == tail.get()) return false;
+        int i = (int)h & mask;
+        kind = kinds[i];
+        value = values[i];
+        time = times[i];
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    public int kind() { return kind; }
+    public int value() { return value; }
+    public long time() { return time; }
+    public long getDropped() { return dropped; }
+
+    // Take the keys whose release found the ring full (consumer). To be
+    //   called after polling the events queued, and applied after them.
+    public int takeDroppedReleases() {
+        return droppedReleases.getAndSet(0);
+    }
+
+    private static void setBits(AtomicInteger a, int bits) {
+        int old;
+        do { old = a.get(); } while (!a.compareAndSet(old, old | bits));
+    }
+
+    private static void clearBits(AtomicInteger a, int bits) {
+        int old;
+        do { old = a.get(); } while (!a.compareAndSet(old, old & ~bits));
+    }
+
+    // Record that the event last polled has taken effect at the
+    //   given time (consumer).
+    public void applied(long now) {
+        long latency = now - time;
+        windowSum += latency;
+        if (latency > windowMax) windowMax = latency;
+        ++windowCount;
+    }
+
+    // Update the latency figures, once per second (consumer).
+    public void updateLatency(long now) {
+        if (windowStart == 0) windowStart = now;
+        if (now - windowStart < SECOND) return;
+        if (windowCount > 0) {
+            latencyAvgMillis = (windowSum / (double)windowCount) / 1000000.0;
+            latencyMaxMillis = windowMax / 1000000.0;
+        }
+        windowStart = now;
+        windowCount = 0;
+        windowSum = 0;
+        windowMax = 0;
+    }
+
+    // Input latency (average and maximum over the last second with
+    //   any input), in milliseconds.
+    public double getLatencyAvgMillis() { return latencyAvgMillis; }
+    public double getLatencyMaxMillis() { return latencyMaxMillis; }
+
+} // end class InputQueue
@@ -0,0 +1,135 @@
+/*
+ * LoopScheduler.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides when the main game loop runs its next simulation tick.
+ *
+ * MODE_FIXED runs the simulation on a fixed step measured with
+ * 'System.nanoTime'. Elapsed time goes into an accumulator, and one
+ * tick is run per step of accumulated time (up to a catch-up limit,
+ * past which the excess time is dropped). Between frames the loop
+ * thread is parked, with only a short spin right before the deadline
+ * so that the core is free for the JIT compiler and GC threads.
+ *
+ * MODE_SPIN is the original busy-wait on the millisecond clock, kept
+ * so the two can be compared.
+ *
+ * Also keeps the frame rate and the tick jitter (the difference
+ * between the actual and the ideal interval between ticks) for
+ * display on the dashboard.
+ *
+ */
+public class LoopScheduler
+{
+    // Scheduler modes.
+    public static final int MODE_FIXED = 0;
+    public static final int MODE_SPIN = 1;
+
+    // Time before a deadline that is spun away rather than parked,
+    //   as 'parkNanos' may oversleep by about this much.
+    private static final long SPIN_NANOS = 500000L;
+
+    // One second, in nanoseconds.
+    private static final long SECOND = 1000000000L;
+
+    private final int mode;
+    private final long tickNanos;
+    private final int maxCatchUp;
+
+    // Fixed-step state.
+    private long lastTime;
+    private long accumulator = 0;
+    private long droppedTicks = 0;
+
+    // Statistics.
+    private long lastFrameTime = 0;
+    private long windowStart;
+    private int windowFrames = 0;
+    private long windowJitterSum = 0;
+    private long windowJitterMax = 0;
+    private int fps = 0;
+    private double jitterAvgMillis = 0.0;
+    private double jitterMaxMillis = 0.0;
+
+    // Constructor. 'tickNanos' is the length of one simulation step.
+    public LoopScheduler(int mode, long tickNanos, int maxCatchUp) {
+        this.mode = mode;
+        this.tickNanos = tickNanos;
+        this.maxCatchUp = maxCatchUp;
+        this.lastTime = System.nanoTime();
+        this.windowStart = lastTime;
+    }
+
+    public int getMode() { return mode; }
+    public long getTickNanos() { return tickNanos; }
+    public int getFps() { return fps; }
+    public double getJitterAvgMillis() { return jitterAvgMillis; }
+    public double getJitterMaxMillis() { return jitterMaxMillis; }
+    public long getDroppedTicks() { return droppedTicks; }
+
+    // Wait until the next frame is due and return the number of
+    //   simulation ticks to run for it (at least one).
+    public int nextFrame() {
+        int ticks;
+        if (mode == MODE_SPIN) {
+            while ((System.nanoTime() - lastTime) / 1000000L < tickNanos / 1000000L) {}
+            lastTime = System.nanoTime();
+            ticks = 1;
+        }
+        else {
+            while (true) {
+                long now = System.nanoTime();
+                accumulator += now - lastTime;
+                lastTime = now;
+                if (accumulator >= tickNanos) break;
+                waitNanos(tickNanos - accumulator);
+            }
+            ticks = (int)(accumulator / tickNanos);
+            if (ticks > maxCatchUp) {
+                droppedTicks += ticks - maxCatchUp;
+                ticks = maxCatchUp;
+                accumulator = 0;
+            }
+            else accumulator -= ticks * tickNanos;
+        }
+        recordFrame(lastTime, ticks);
+        return ticks;
+    }
+
+    // Park for most of the given time and spin for the rest.
+    private void waitNanos(long nanos) {
+        if (nanos > SPIN_NANOS) {
+            LockSupport.parkNanos(nanos - SPIN_NANOS);
+        }
+        else {
+            long deadline = System.nanoTime() + nanos;
+            while (System.nanoTime() - deadline < 0) {}
+        }
+    }
+
+    // Update the frame rate and jitter figures, once per second.
+    private void recordFrame(long now, int ticks) {
+        if (lastFrameTime != 0) {
+            long jitter = Math.abs((now - lastFrameTime) - ticks * tickNanos);
+            windowJitterSum += jitter;
+            if (jitter > windowJitterMax) windowJitterMax = jitter;
+        }
+        lastFrameTime = now;
+        ++windowFrames;
+        if (now - windowStart >= SECOND) {
+            fps = (int)((windowFrames * SECOND) / (now - windowStart));
+            jitterAvgMillis = (windowJitterSum / (double)windowFrames) / 1000000.0;
+            jitterMaxMillis = windowJitterMax / 1000000.0;
+            windowStart = now;
+            windowFrames = 0;
+            windowJitterSum = 0;
+            windowJitterMax = 0;
+        }
+    }
+
+} // end class LoopScheduler
@@ -0,0 +1,142 @@
+/*
+ * ReplayReader.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Reads a replay file written by ReplayWriter. The whole file is read
+ * when the reader is made, giving the input of every tick and the
+ * state hashes to check the replay against.
+ *
+ */
+public class ReplayReader
+{
+    private final String filename;
+
+    // Header.
+    private long seed;
+    private String level;
+    private int tickMode;
+    private TickRates rates;
+    private int hashInterval;
+
+    // The keys of each tick, and the expected hash after every
+    //   'hashInterval' ticks (indexed by tick / hashInterval).
+    private short[] keys = new short[1024];
+    private long[] hashes = new long[16];
+    private boolean[] hashed = new boolean[16];
+    private int ticks = 0;
+
+    // Constructor. Reads the given file.
+    public ReplayReader(String filename) {
+        this.filename = filename;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)));
+            if (in.readInt() != ReplayWriter.MAGIC) error("ReplayReader", "not a replay file");
+            short version = in.readShort();
+            if (version != ReplayWriter.VERSION) error("ReplayReader", "unknown version " + version);
+            seed = in.readLong();
+            level = in.readUTF();
+            tickMode = in.readByte();
+            int rings = in.readByte();
+            if (rings < 1) error("ReplayReader", "no tick rate rings");
+            int[] ringTicks = new int[rings];
+            int[] ringEdges = new int[rings - 1];
+            for (int i = 0; i < rings; ++i) {
+                ringTicks[i] = in.readInt();
+                if (i < rings - 1) ringEdges[i] = in.readInt();
+            }
+            int searchTicks = in.readInt();
+            int animTicks = in.readInt();
+            rates = new TickRates(ringEdges, ringTicks, searchTicks, animTicks);
+            hashInterval = in.readInt();
+            boolean done = false;
+            while (!done) {
+                int kind = in.readByte();
+                switch (kind) {
+                case ReplayWriter.REC_INPUT:
+                    int k = in.readShort();
+                    int n = in.readInt();
+                    for (int i = 0; i < n; ++i) addTick(k);
+                    break;
+                case ReplayWriter.REC_HASH:
+                    long tick = in.readLong();
+                    addHash(tick, in.readLong());
+                    break;
+                case ReplayWriter.REC_END:
+                    if (in.readLong() != ticks) error("ReplayReader", "tick count does not match");
+                    done = true;
+                    break;
+                default:
+                    error("ReplayReader", "unknown record " + kind);
+                }
+            }
+        }
+        catch (IOException e) {
+            error("ReplayReader", e.toString());
+        }
+        finally {
+            try {
+                if (in != null) in.close();
+            }
+            catch (IOException e) {}
+        }
+    }
+
+    public long getSeed() { return seed; }
+    public String getLevel() { return level; }
+    public int getTickMode() { return tickMode; }
+    public TickRates getRates() { return rates; }
+    public int getHashInterval() { return hashInterval; }
+    public int getTicks() { return ticks; }
+
+    // Get the keys given to the tick with the given index.
+    public int getKeys(int tick) { return keys[tick] & 0xffff; }
+
+    // Whether a hash was recorded after the given number of ticks.
+    public boolean hasHash(long tick) {
+        if (hashInterval == 0 || tick % hashInterval != 0) return false;
+        long i = tick / hashInterval;
+        return i < hashed.length && hashed[(int)i];
+    }
+
+    // Get the hash recorded after the given number of ticks.
+    public long getHash(long tick) { return hashes[(int)(tick / hashInterval)]; }
+
+    private void addTick(int k) {
+        if (ticks == keys.length) {
+            short[] n = new short[ticks << 1];
+            System.arraycopy(keys, 0, n, 0, ticks);
+            keys = n;
+        }
+        keys[ticks++] = (short)k;
+    }
+
+    private void addHash(long tick, long hash) {
+        if (hashInterval == 0 || tick % hashInterval != 0) error("addHash", "hash off interval");
+        int i = (int)(tick / hashInterval);
+        while (i >= hashes.length) {
+            long[] nh = new long[hashes.length << 1];
+            boolean[] nd = new boolean[hashes.length << 1];
+            System.arraycopy(hashes, 0, nh, 0, hashes.length);
+            System.arraycopy(hashed, 0, nd, 0, hashed.length);
+            hashes = nh;
+            hashed = nd;
+        }
+        hashes[i] = hash;
+        hashed[i] = true;
+    }
+
+    private void error(String function, String message) {
+        System.out.println("ReplayReader." + function + "(): " + filename + ": " + message);
+        System.exit(1);
+    }
+
+} // end class ReplayReader
@@ -0,0 +1,147 @@
+/*
+ * ReplayWriter.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Records a game session to a replay file, from which it can be run
+ * again with exactly the same result (see ReplayReader).
+ *
+ * A run is decided by the seed of the random number table, the level,
+ * the tick mode (the serial and parallel action phases act in
+ * different orders), the tick rates and the input given to each
+ * tick, so that is all
+ * the file holds, plus the state hash of the world every so many
+ * ticks, to catch a replay going astray. The input is written as runs
+ * of ticks with the same keys, which keeps a long session small.
+ *
+ * File layout (big-endian):
+ *   int     MAGIC
+ *   short   VERSION
+ *   long    random seed
+ *   UTF     level file
+ *   byte    tick mode (see TickExecutor.MODE_ constants)
+ *   byte    number of rings, then per ring its ticks and (but for
+ *             the last) its edge, as ints
+ *   int     ticks between path searches
+ *   int     ticks between animation steps
+ *   int     hash interval (0 for none)
+ *   records, each a byte giving its kind:
+ *     REC_INPUT  short keys, int number of ticks
+ *     REC_HASH   long tick count, long state hash
+ *     REC_END    long total number of ticks
+ *
+ */
+public class ReplayWriter
+{
+    public static final int MAGIC = 0x4452504C;   // "DRPL"
+    public static final short VERSION = 2;
+
+    // Record kinds.
+    public static final int REC_END = 0;
+    public static final int REC_INPUT = 1;
+    public static final int REC_HASH = 2;
+
+    private final String filename;
+    private final DataOutputStream out;
+    private final int hashInterval;
+
+    // The run of input not yet written, and the number of ticks
+    //   recorded in all.
+    private int runKeys = 0;
+    private int runLength = 0;
+    private long ticks = 0;
+
+    // Constructor. Creates the file and writes the header.
+    public ReplayWriter(String filename, long seed, String level, int tickMode,
+                        TickRates rates, int hashInterval) {
+        this.filename = filename;
+        this.hashInterval = hashInterval;
+        DataOutputStream o = null;
+        try {
+            o = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
+            o.writeInt(MAGIC);
+            o.writeShort(VERSION);
+            o.writeLong(seed);
+            o.writeUTF(level);
+            o.writeByte(tickMode);
+            o.writeByte(rates.numRings());
+            for (int i = 0; i < rates.numRings(); ++i) {
+                o.writeInt(rates.getRingTicks(i));
+                if (i < rates.numRings() - 1) o.writeInt(rates.getRingEdge(i));
+            }
+            o.writeInt(rates.getSearchTicks());
+            o.writeInt(rates.getAnimTicks());
+            o.writeInt(hashInterval);
+        }
+        catch (IOException e) {
+            error("ReplayWriter", e);
+        }
+        this.out = o;
+    }
+
+    public int getHashInterval() { return hashInterval; }
+
+    // Record the input of the next tick.
+    public void tick(int keys) {
+        if (runLength > 0 && keys != runKeys) flushRun();
+        runKeys = keys;
+        ++runLength;
+        ++ticks;
+    }
+
+    // Record the state hash of the world after the given number of
+    //   ticks, if due.
+    public void hash(long tick, long hash) {
+        if (hashInterval == 0 || tick % hashInterval != 0) return;
+        flushRun();
+        try {
+            out.writeByte(REC_HASH);
+            out.writeLong(tick);
+            out.writeLong(hash);
+        }
+        catch (IOException e) {
+            error("hash", e);
+        }
+    }
+
+    // Finish the file. A tick that failed partway is still recorded,
+    //   so that playing the file back fails in the same place.
+    public void close() {
+        flushRun();
+        try {
+            out.writeByte(REC_END);
+            out.writeLong(ticks);
+            out.close();
+        }
+        catch (IOException e) {
+            error("close", e);
+        }
+    }
+
+    // Write the run of input so far.
+    private void flushRun() {
+        if (runLength == 0) return;
+        try {
+            out.writeByte(REC_INPUT);
+            out.writeShort(runKeys);
+            out.writeInt(runLength);
+        }
+        catch (IOException e) {
+            error("flushRun", e);
+        }
+        runLength = 0;
+    }
+
+    private void error(String function, IOException e) {
+        System.out.println("ReplayWriter." + function + "(): error writing " + filename + " (" + e + ")");
+        System.exit(1);
+    }
+
+} // end class ReplayWriter
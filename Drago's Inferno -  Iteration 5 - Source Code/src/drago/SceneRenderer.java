@@ -0,0 +1,158 @@
+/*
+ * SceneRenderer.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering: draws the game's frames on a Canvas through a
+ * triple-buffered BufferStrategy, from a thread of its own, instead of
+ * asking Swing to repaint the GamePanel. A frame is drawn and shown as
+ * soon as the game loop has published its snapshot (see frameReady),
+ * rather than whenever the Swing thread gets round to a coalesced
+ * repaint.
+ *
+ * The drawing itself is still done by GamePanel.present, so both ways
+ * of rendering show the same thing; the GamePanel is not put in the
+ * window when this one is used. The canvas may take any size, the
+ * frame being scaled to it (see FramePresenter).
+ *
+ * With a display rate set, frames are drawn at that rate instead,
+ * whether or not a new snapshot has come, for the renderer to draw
+ * the world in between ticks (see FrameSnapshot).
+ *
+ * The buffers live in video memory and may be lost (e.g. when the
+ * display mode changes or the window is covered); a frame whose
+ * buffer was restored or lost while drawing is drawn again. The frame
+ * is also drawn again every so often when there is no new one, so
+ * that the window is refreshed while the game loop is stopped.
+ *
+ */
+public class SceneRenderer implements Runnable
+{
+    // Ways of rendering.
+    public static final int MODE_SWING = 0;    // GamePanel.paintComponent, via repaint()
+    public static final int MODE_ACTIVE = 1;   // this class
+
+    private static final int BUFFERS = 3;
+
+    // Longest time between two frames drawn when no new snapshot
+    //   comes.
+    private static final long REFRESH_NANOS = 100000000L;
+
+    private final GamePanel panel;
+    private final Canvas canvas;
+    private BufferStrategy strategy = null;
+
+    private Thread thread = null;
+    private volatile boolean running = false;
+
+    // Time between frames at the display rate set (0 for none).
+    private long periodNanos = 0;
+
+    // Constructor. The canvas has the panel's preferred size.
+    public SceneRenderer(GamePanel panel) {
+        this.panel = panel;
+        canvas = new Canvas();
+        canvas.setIgnoreRepaint(true);
+        canvas.setPreferredSize(panel.getPreferredSize());
+        canvas.setBackground(panel.getBackground());
+    }
+
+    // Draw frames at the given rate, in Hz (0 to draw each snapshot
+    //   as it comes). Set before starting.
+    public void setDisplayRate(int hz) {
+        periodNanos = (hz > 0) ? 1000000000L / hz : 0;
+    }
+
+    // The canvas to put in the window in place of the panel.
+    public Canvas getCanvas() { return canvas; }
+
+    // Start the render thread. The canvas must be in a window that is
+    //   showing.
+    public void start() {
+        canvas.createBufferStrategy(BUFFERS);
+        strategy = canvas.getBufferStrategy();
+        running = true;
+        thread = new Thread(this, "SceneRenderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Stop the render thread and wait for it to finish.
+    public void stop() {
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        strategy.dispose();
+        thread = null;
+    }
+
+    // Tell the render thread that a new snapshot has been published
+    //   (game loop).
+    public void frameReady() {
+        if (thread != null) LockSupport.unpark(thread);
+    }
+
+    // The render thread: draw each new snapshot as it comes, or draw
+    //   at the display rate.
+    public void run() {
+        long lastShown = 0;
+        while (running) {
+            long now = System.nanoTime();
+            if (periodNanos > 0) {
+                if (now - lastShown < periodNanos) {
+                    LockSupport.parkNanos(this, periodNanos - (now - lastShown));
+                    continue;
+                }
+            }
+            else if (!panel.hasNewFrame() && now - lastShown < REFRESH_NANOS) {
+                LockSupport.parkNanos(this, REFRESH_NANOS - (now - lastShown));
+                continue;
+            }
+            try {
+                show();
+            }
+            catch (IllegalStateException e) {
+                // The canvas has left the screen (the window is being
+                //   closed): nothing more to draw on.
+                break;
+            }
+            lastShown = System.nanoTime();
+        }
+    } // end method run
+
+    // Draw the latest snapshot into the back buffer and show it,
+    //   drawing again for as long as the buffer is restored or lost
+    //   in between.
+    private void show() {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D)strategy.getDrawGraphics();
+                try {
+                    panel.present(g2d, width, height);
+                }
+                finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    } // end method show
+
+} // end class SceneRenderer
@@ -0,0 +1,164 @@
+/*
+ * SpriteAtlas.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+/**
+ * All the game's sprites, packed into a few large pages. A sprite is
+ * referred to by an integer id, which stands for a page and the
+ * rectangle of the page that holds the sprite.
+ *
+ * Sprites are loaded as GIFs, which ImageIO gives as indexed-color
+ * images: Java2D cannot keep those in video memory, and converts them
+ * on every draw. The pages are made in the screen's own format (or
+ * premultiplied ARGB with no screen), into which each sprite is
+ * copied once when added, so drawing a sprite is a plain copy of part
+ * of a page -- and a handful of pages is far easier for Java2D to
+ * keep accelerated than hundreds of small images.
+ *
+ * Sprites are placed in rows ("shelves") across the current page, a
+ * new page being started when one is full; a sprite larger than a
+ * page gets a page of its own. Sprites may be added at any time
+ * (e.g., by a loader thread) while others are drawn.
+ *
+ */
+public class SpriteAtlas
+{
+    // The atlas of the game's sprites.
+    public static final SpriteAtlas GAME = new SpriteAtlas(1024);
+
+    // Gap left between sprites.
+    private static final int GAP = 1;
+
+    // A placed sprite.
+    private static class Entry
+    {
+        final BufferedImage page;
+        final int x, y, width, height;
+
+        Entry(BufferedImage page, int x, int y, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final int pageSize;
+    private final GraphicsConfiguration gc;
+
+    // The sprites by id, and the number of them. A slot is filled
+    //   before its id is handed out, and the array is replaced by a
+    //   copy when it grows, so that sprites can be drawn while others
+    //   are added.
+    private volatile Entry[] entries = new Entry[256];
+    private int count = 0;
+
+    // The pages, and the free space of the last: the top of the
+    //   current shelf, its height, and the left of its free part.
+    private final ArrayList<BufferedImage> pages = new ArrayList<BufferedImage>();
+    private BufferedImage page = null;
+    private int shelfy = 0;
+    private int shelfHeight = 0;
+    private int shelfx = 0;
+
+    // Constructor. 'pageSize' is the side of a page, in pixels.
+    public SpriteAtlas(int pageSize) {
+        this.pageSize = pageSize;
+        this.gc = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment()
+                        .getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    // Add a sprite, copying it into a page, and get its id.
+    public synchronized int add(BufferedImage image) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        BufferedImage target;
+        int x, y;
+        if (w > pageSize || h > pageSize) {
+            target = newPage(w, h);
+            x = 0;
+            y = 0;
+        }
+        else {
+            if (page == null || shelfx + w > pageSize) {
+                shelfy += shelfHeight;
+                shelfHeight = 0;
+                shelfx = 0;
+            }
+            if (page == null || shelfy + h > pageSize) {
+                page = newPage(pageSize, pageSize);
+                shelfy = 0;
+                shelfHeight = 0;
+                shelfx = 0;
+            }
+            target = page;
+            x = shelfx;
+            y = shelfy;
+            shelfx += w + GAP;
+            shelfHeight = Math.max(shelfHeight, h + GAP);
+        }
+        Graphics2D g2d = target.createGraphics();
+        g2d.drawImage(image, x, y, null);
+        g2d.dispose();
+
+        Entry[] e = entries;
+        if (count == e.length) {
+            Entry[] n = new Entry[count << 1];
+            System.arraycopy(e, 0, n, 0, count);
+            e = n;
+        }
+        e[count] = new Entry(target, x, y, w, h);
+        entries = e;
+        return count++;
+    }
+
+    // Make a page.
+    private BufferedImage newPage(int w, int h) {
+        BufferedImage p = createImage(w, h);
+        pages.add(p);
+        return p;
+    }
+
+    // Make a blank (transparent) image in the format of the pages, for
+    //   other images drawn often (e.g. ground chunks).
+    public BufferedImage createImage(int w, int h) {
+        return (gc != null)
+                ? gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    public synchronized int numSprites() { return count; }
+    public synchronized int numPages() { return pages.size(); }
+
+    public int getWidth(int id) { return entries[id].width; }
+    public int getHeight(int id) { return entries[id].height; }
+
+    // Get a sprite as an image of its own (sharing the page's pixels),
+    //   e.g. to read its pixels. Not for drawing, which should go
+    //   through 'draw'.
+    public BufferedImage getImage(int id) {
+        Entry e = entries[id];
+        return e.page.getSubimage(e.x, e.y, e.width, e.height);
+    }
+
+    // Draw a sprite with its upper-left corner at the given point.
+    public void draw(Graphics2D g2d, int id, int x, int y) {
+        Entry e = entries[id];
+        g2d.drawImage(e.page,
+                x, y, x + e.width, y + e.height,
+                e.x, e.y, e.x + e.width, e.y + e.height,
+                null);
+    }
+
+} // end class SpriteAtlas
@@ -0,0 +1,156 @@
+/*
+ * SpriteEffects.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Variants of the atlas's sprites drawn with an effect: tinted toward
+ * a color, flashed brighter, or as a solid silhouette (e.g. for an
+ * entity that has just taken damage; see Entity.getSpriteEffect).
+ *
+ * A variant is made the first time it is asked for, by working on the
+ * sprite's pixels as a whole array rather than one 'getRGB' at a time,
+ * and is kept in a cache of bounded size, the least recently used
+ * variants being dropped to make room. Variants are not added to the
+ * atlas, which never lets go of a sprite; each is an image of its own
+ * in the format of the atlas's pages.
+ *
+ * Used by the thread that captures the frames (see GamePanel) only;
+ * the variants themselves are never changed once made, and can be
+ * drawn on any thread.
+ *
+ */
+public class SpriteEffects
+{
+    // Effects (see 'get'). The color is in ARGB.
+    //   TINT: each pixel is blended toward the color, by the color's
+    //     alpha (255 for the color itself).
+    //   FLASH: the color is added to each pixel, brightening it.
+    //   SILHOUETTE: each visible pixel takes the color.
+    // The sprite's own alpha is kept in each case.
+    public static final int NONE = -1;
+    public static final int TINT = 0;
+    public static final int FLASH = 1;
+    public static final int SILHOUETTE = 2;
+
+    // Default memory the variants may take, in megabytes.
+    public static final int DEFAULT_BUDGET_MB = 4;
+
+    // The effects of the game's sprites.
+    public static final SpriteEffects GAME = new SpriteEffects(DEFAULT_BUDGET_MB);
+
+    private final long budget;
+    private long bytes = 0;
+    private int made = 0;
+
+    // The variants, by sprite, effect and color (see 'key'), least
+    //   recently used first.
+    private final LinkedHashMap<Long, BufferedImage> variants =
+            new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true);
+
+    // Constructor. 'budgetMB' is the memory the variants may take, in
+    //   megabytes.
+    public SpriteEffects(int budgetMB) {
+        this.budget = (long)budgetMB << 20;
+    }
+
+    // Number of variants made so far (counting those made again after
+    //   being dropped), and those held now.
+    public int getMade() { return made; }
+    public int size() { return variants.size(); }
+
+    // Get a sprite of the atlas with an effect in the given color.
+    public BufferedImage get(int sprite, int effect, int color) {
+        Long key = key(sprite, effect, color);
+        BufferedImage variant = variants.get(key);
+        if (variant != null) return variant;
+
+        variant = make(sprite, effect, color);
+        ++made;
+        bytes += size(variant);
+        variants.put(key, variant);
+
+        // Drop the least recently used variants while over budget
+        //   (keeping the one just made).
+        Iterator<Map.Entry<Long, BufferedImage>> it = variants.entrySet().iterator();
+        while (bytes > budget && variants.size() > 1) {
+            bytes -= size(it.next().getValue());
+            it.remove();
+        }
+        return variant;
+    } // end method get
+
+    // Make a variant: read the sprite's pixels into an array in one
+    //   go, apply the effect over the array, and copy the result into
+    //   an image in the atlas's format.
+    private static BufferedImage make(int sprite, int effect, int color) {
+        BufferedImage source = SpriteAtlas.GAME.getImage(sprite);
+        int w = source.getWidth();
+        int h = source.getHeight();
+        BufferedImage argb = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt)argb.getRaster().getDataBuffer()).getData();
+        source.getRGB(0, 0, w, h, pixels, 0, w);
+
+        int cr = (color >> 16) & 255;
+        int cg = (color >> 8) & 255;
+        int cb = color & 255;
+        int ca = (color >>> 24);
+        for (int i = 0; i < pixels.length; ++i) {
+            int p = pixels[i];
+            int a = p >>> 24;
+            if (a == 0) continue;
+            int r = (p >> 16) & 255;
+            int g = (p >> 8) & 255;
+            int b = p & 255;
+            switch (effect) {
+            case TINT:
+                r += ((cr - r) * ca) / 255;
+                g += ((cg - g) * ca) / 255;
+                b += ((cb - b) * ca) / 255;
+                break;
+            case FLASH:
+                r = Math.min(255, r + cr);
+                g = Math.min(255, g + cg);
+                b = Math.min(255, b + cb);
+                break;
+            case SILHOUETTE:
+                r = cr;
+                g = cg;
+                b = cb;
+                break;
+            default:
+                error("make", "unknown effect (" + effect + ")");
+            }
+            pixels[i] = (a << 24) | (r << 16) | (g << 8) | b;
+        }
+
+        BufferedImage variant = SpriteAtlas.GAME.createImage(w, h);
+        Graphics2D g2d = variant.createGraphics();
+        g2d.drawImage(argb, 0, 0, null);
+        g2d.dispose();
+        return variant;
+    } // end method make
+
+    private static long size(BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    // The key of a variant: the sprite, the effect and the color.
+    private static long key(int sprite, int effect, int color) {
+        return ((long)sprite << 34) | ((long)effect << 32) | (color & 0xffffffffL);
+    }
+
+    private static void error(String function, String message) {
+        System.out.println("SpriteEffects." + function + "(): " + message);
+        System.exit(1);
+    }
+
+} // end class SpriteEffects
@@ -0,0 +1,235 @@
+/*
+ * SpritePack.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import javax.imageio.ImageIO;
+
+/**
+ * The game's sprites, decoded ahead of time into a single file (the
+ * pack), so that they are not decoded from their GIFs at each start.
+ *
+ * The pack holds each sprite as raw premultiplied ARGB pixels, with
+ * an index giving, for each GIF, its name, its size and the time it
+ * was last changed, the size of the sprite, and where its pixels are.
+ * The pack is mapped into memory when opened, and a sprite is got by
+ * copying its pixels straight into an image. A GIF changed since the
+ * pack was made, or not in it, is not found in the pack, and is
+ * decoded from the GIF as before (see AssetLoader).
+ *
+ * The pack is made from the GIFs of a folder with:
+ *
+ *   java drago.SpritePack [folder]
+ *
+ * which writes 'sprites.pack' into the folder ('img' by default).
+ *
+ */
+public class SpritePack
+{
+    // Name of the pack in the sprite folder.
+    public static final String FILE_NAME = "sprites.pack";
+
+    // First bytes of a pack ("DRSP"), and the version of its format.
+    private static final int MAGIC = 0x44525350;
+    private static final int VERSION = 1;
+
+    // A sprite of the pack: the GIF it was made from (its size and
+    //   the time it was last changed), its size, and the offset of
+    //   its pixels.
+    private static class Entry
+    {
+        final long gifLength, gifModified;
+        final int width, height;
+        final int offset;
+
+        Entry(long gifLength, long gifModified, int width, int height, int offset) {
+            this.gifLength = gifLength;
+            this.gifModified = gifModified;
+            this.width = width;
+            this.height = height;
+            this.offset = offset;
+        }
+    }
+
+    // The pack, mapped, and its sprites by GIF name.
+    private final MappedByteBuffer map;
+    private final HashMap<String, Entry> entries = new HashMap<String, Entry>();
+
+    // Open a pack, or get null if there is none or it cannot be read
+    //   (the sprites are then decoded from their GIFs).
+    public static SpritePack open(File file) {
+        if (!file.isFile()) return null;
+        try {
+            return new SpritePack(file);
+        }
+        catch (IOException e) {
+            System.out.println("SpritePack.open(): ignoring " + file.getPath() + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    // Constructor: map the pack and read its index.
+    private SpritePack(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            map = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        finally {
+            raf.close();
+        }
+        try {
+            if (map.getInt() != MAGIC) throw new IOException("not a sprite pack");
+            if (map.getInt() != VERSION) throw new IOException("unknown version");
+            int count = map.getInt();
+            for (int i = 0; i < count; ++i) {
+                byte[] name = new byte[map.getShort() & 0xffff];
+                map.get(name);
+                Entry e = new Entry(map.getLong(), map.getLong(),
+                        map.getInt(), map.getInt(), map.getInt());
+                if (e.offset < 0 || (long)e.offset + 4L * e.width * e.height > map.capacity()) {
+                    throw new IOException("truncated");
+                }
+                entries.put(new String(name, "UTF-8"), e);
+            }
+        }
+        catch (RuntimeException e) {
+            // A buffer underflow, from a pack cut short.
+            throw new IOException("truncated");
+        }
+    }
+
+    // Number of sprites in the pack.
+    public int size() { return entries.size(); }
+
+    // Whether the pack holds the sprite of a GIF as it is now.
+    public boolean has(File gif) {
+        return find(gif) != null;
+    }
+
+    // Get the sprite of a GIF, or null if the pack does not hold it as
+    //   the GIF is now.
+    public BufferedImage get(File gif) {
+        Entry e = find(gif);
+        if (e == null) return null;
+        BufferedImage image = new BufferedImage(e.width, e.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+        ByteBuffer b = map.duplicate();
+        b.position(e.offset);
+        b.asIntBuffer().get(pixels);
+        return image;
+    }
+
+    private Entry find(File gif) {
+        Entry e = entries.get(baseName(gif.getPath()));
+        if (e == null || e.gifLength != gif.length() || e.gifModified != gif.lastModified()) return null;
+        return e;
+    }
+
+    // The name of a file without its folder (the sprite loaders use
+    //   '\' as the separator, whatever the platform).
+    static String baseName(String path) {
+        int i = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return path.substring(i + 1);
+    }
+
+    // Make the pack of a folder's GIFs.
+    public static void main(String[] args) {
+        if (args.length > 1) error("main", "usage: java drago.SpritePack [folder]");
+        File folder = new File((args.length == 1) ? args[0] : "img");
+        File[] files = folder.listFiles();
+        if (files == null) error("main", "no folder " + folder.getPath());
+        Arrays.sort(files);
+
+        // Decode the GIFs into premultiplied ARGB pixels.
+        ArrayList<File> gifs = new ArrayList<File>();
+        ArrayList<BufferedImage> images = new ArrayList<BufferedImage>();
+        long start = System.nanoTime();
+        for (int i = 0; i < files.length; ++i) {
+            if (!files[i].getName().toLowerCase().endsWith(".gif")) continue;
+            BufferedImage gif = null;
+            try {
+                gif = ImageIO.read(files[i]);
+            }
+            catch (IOException e) {
+                error("main", files[i].getPath() + ": " + e.getMessage());
+            }
+            if (gif == null) error("main", files[i].getPath() + ": not an image");
+            BufferedImage image = new BufferedImage(gif.getWidth(), gif.getHeight(),
+                    BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g2d = image.createGraphics();
+            g2d.drawImage(gif, 0, 0, null);
+            g2d.dispose();
+            gifs.add(files[i]);
+            images.add(image);
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        // Write the index, then the pixels, each sprite's starting on a
+        //   four-byte boundary.
+        File pack = new File(folder, FILE_NAME);
+        try {
+            byte[][] names = new byte[gifs.size()][];
+            int indexSize = 12;
+            for (int i = 0; i < names.length; ++i) {
+                names[i] = gifs.get(i).getName().getBytes("UTF-8");
+                indexSize += 2 + names[i].length + 8 + 8 + 4 + 4 + 4;
+            }
+            int dataStart = (indexSize + 3) & ~3;
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(pack), 1 << 16));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(names.length);
+                long offset = dataStart;
+                for (int i = 0; i < names.length; ++i) {
+                    BufferedImage image = images.get(i);
+                    if (offset > Integer.MAX_VALUE) error("main", "too many sprites for one pack");
+                    out.writeShort(names[i].length);
+                    out.write(names[i]);
+                    out.writeLong(gifs.get(i).length());
+                    out.writeLong(gifs.get(i).lastModified());
+                    out.writeInt(image.getWidth());
+                    out.writeInt(image.getHeight());
+                    out.writeInt((int)offset);
+                    offset += 4L * image.getWidth() * image.getHeight();
+                }
+                for (int i = indexSize; i < dataStart; ++i) out.writeByte(0);
+                for (int i = 0; i < names.length; ++i) {
+                    int[] pixels = ((DataBufferInt)images.get(i).getRaster().getDataBuffer()).getData();
+                    for (int p = 0; p < pixels.length; ++p) out.writeInt(pixels[p]);
+                }
+            }
+            finally {
+                out.close();
+            }
+        }
+        catch (IOException e) {
+            error("main", pack.getPath() + ": " + e.getMessage());
+        }
+        System.out.println(String.format("Packed %d sprites into %s (%,d bytes); decoding took %.1f ms",
+                gifs.size(), pack.getPath(), pack.length(), decodeNanos / 1e6));
+    } // end method main
+
+    private static void error(String function, String message) {
+        System.out.println("SpritePack." + function + "(): " + message);
+        System.exit(1);
+    }
+
+} // end class SpritePack
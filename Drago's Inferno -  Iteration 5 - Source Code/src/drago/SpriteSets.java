@@ -0,0 +1,189 @@
+/*
+ * SpriteSets.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import entity.*;
+
+/**
+ * The sprite sets of the entity types (each loaded by the type's
+ * 'loadSprites' method), loaded as the levels need them.
+ *
+ * The sets of the types a level places (see Playfield.getEntityTypes)
+ * are loaded when the level is shown (see GamePanel.setPlayfield).
+ * Any other type's set is loaded the first time an entity of that
+ * type is drawn (e.g. the first fireball or explosion), on a loader
+ * thread; until it is ready, entities of the type are drawn with a
+ * placeholder (a faint shadow) instead.
+ *
+ * Used by the thread that captures the frames (see GamePanel) only,
+ * which collects the sets loaded at the start of each frame, so that
+ * a set becomes ready between frames and never part way through one.
+ *
+ */
+public class SpriteSets
+{
+    // The sprite sets, in the order they are loaded when several are
+    //   loaded at once (so their sprites get the same ids each time).
+    public static final int PLAYER = 0;
+    public static final int ARCHER = 1;
+    public static final int TREE = 2;
+    public static final int STONE = 3;
+    public static final int FIREBALL = 4;
+    public static final int EXPLOSION = 5;
+    public static final int RED_EGG = 6;
+    public static final int GREEN_EGG = 7;
+    public static final int BLUE_EGG = 8;
+    public static final int YELLOW_EGG = 9;
+    public static final int NUM_SETS = 10;
+
+    // Names of the sets, as in the level files.
+    private static final String[] NAMES = {
+        "PLAYER", "ARCHER", "TREE", "STONE", "FIREBALL",
+        "EXPLOSION", "RED_EGG", "GREEN_EGG", "BLUE_EGG", "YELLOW_EGG"
+    };
+
+    // Side of the placeholder sprite, in pixels.
+    private static final int PLACEHOLDER_SIZE = 32;
+
+    // The sprite sets of the game.
+    public static final SpriteSets GAME = new SpriteSets();
+
+    // Whether each set is ready, and the loading of those still being
+    //   loaded (null if not asked for).
+    private final boolean[] loaded = new boolean[NUM_SETS];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Future<Void>[] loading = new Future[NUM_SETS];
+
+    private ThreadPoolExecutor pool = null;
+    private int placeholder = -1;
+
+    // Get the set of a type by its name (see Playfield.getEntityTypes),
+    //   or -1 if there is none.
+    public static int forName(String name) {
+        for (int i = 0; i < NUM_SETS; ++i) {
+            if (NAMES[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // Load the sets of the named types now, in order of set, on this
+    //   thread.
+    public void load(Collection<String> names) {
+        boolean[] wanted = new boolean[NUM_SETS];
+        for (String name : names) {
+            int set = forName(name);
+            if (set >= 0) wanted[set] = true;
+        }
+        for (int set = 0; set < NUM_SETS; ++set) {
+            if (!wanted[set] || loaded[set]) continue;
+            if (loading[set] != null) {
+                result(loading[set]);
+                loading[set] = null;
+            }
+            else loadSet(set);
+            loaded[set] = true;
+        }
+    } // end method load
+
+    // Whether a set is ready to draw. If not, it is queued to be
+    //   loaded (once), and the placeholder is to be drawn instead.
+    public boolean ensure(int set) {
+        if (loaded[set]) return true;
+        if (loading[set] == null) {
+            final int s = set;
+            loading[set] = pool().submit(new Callable<Void>() {
+                public Void call() {
+                    loadSet(s);
+                    return null;
+                }
+            });
+        }
+        return false;
+    }
+
+    // Mark the sets whose loading has finished as ready. Called at the
+    //   start of each frame.
+    public void collect() {
+        for (int set = 0; set < NUM_SETS; ++set) {
+            if (loading[set] == null || !loading[set].isDone()) continue;
+            result(loading[set]);
+            loading[set] = null;
+            loaded[set] = true;
+        }
+    }
+
+    // Get the placeholder sprite, drawn in place of a set not ready.
+    public int getPlaceholder() {
+        if (placeholder < 0) {
+            BufferedImage image = SpriteAtlas.GAME.createImage(PLACEHOLDER_SIZE, PLACEHOLDER_SIZE);
+            Graphics2D g2d = image.createGraphics();
+            g2d.setColor(new Color(0, 0, 0, 64));
+            g2d.fillOval(0, PLACEHOLDER_SIZE * 3 / 4, PLACEHOLDER_SIZE, PLACEHOLDER_SIZE / 4);
+            g2d.dispose();
+            placeholder = SpriteAtlas.GAME.add(image);
+        }
+        return placeholder;
+    }
+
+    // Load a set with its type's method.
+    private static void loadSet(int set) {
+        switch (set) {
+        case PLAYER:     Player.loadSprites();    break;
+        case ARCHER:     Archer.loadSprites();    break;
+        case TREE:       Tree.loadSprites();      break;
+        case STONE:      Stone.loadSprites();     break;
+        case FIREBALL:   Fireball.loadSprites();  break;
+        case EXPLOSION:  Explosion.loadSprites(); break;
+        case RED_EGG:    RedEgg.loadSprites();    break;
+        case GREEN_EGG:  GreenEgg.loadSprites();  break;
+        case BLUE_EGG:   BlueEgg.loadSprites();   break;
+        case YELLOW_EGG: YellowEgg.loadSprites(); break;
+        default: error("loadSet", "unknown sprite set (" + set + ")");
+        }
+    }
+
+    // Wait for a set's loading to finish.
+    private static void result(Future<Void> f) {
+        try {
+            f.get();
+        }
+        catch (Exception e) {
+            error("result", e.toString());
+        }
+    }
+
+    // The loader thread, started when first needed.
+    private ThreadPoolExecutor pool() {
+        if (pool == null) {
+            pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "SpriteSets");
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+        }
+        return pool;
+    }
+
+    private static void error(String function, String message) {
+        System.out.println("SpriteSets." + function + "(): " + message);
+        System.exit(1);
+    }
+
+} // end class SpriteSets
@@ -0,0 +1,182 @@
+/*
+ * TickExecutor.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import playfield.Playfield;
+
+import entity.EffectBuffer;
+import entity.Entity;
+import entity.Player;
+
+/**
+ * Lets the active entities act on several threads at once.
+ *
+ * The level is cut into square cells of CELL_SIZE pixels, and each
+ * entity is put in the cell its position lies in. The cells are
+ * coloured in a 2x2 pattern, and the four colours are run one after
+ * another. Two cells of the same colour are at least one cell apart,
+ * and no entity reaches (with its bounding polygon, its speed and the
+ * squares it looks at) more than half a cell from its position, so
+ * entities in cells of the same colour never touch the same grid
+ * squares and may act at the same time.
+ *
+ * Whatever an action does beyond its own squares (entities added,
+ * removed or vanishing, the active list, damage dealt, sounds) is
+ * recorded in the cell's effect buffer (see EffectBuffer), and the
+ * buffers are committed on the calling thread after each colour, in
+ * cell order. The result of a tick is therefore the same for any
+ * number of threads, though the order of actions is not that of
+ * the serial loop in GameWorld.
+ *
+ */
+public class TickExecutor
+{
+    // Ways of running the action phase (see GameOptions).
+    public static final int MODE_SERIAL = 0;
+    public static final int MODE_PARALLEL = 1;
+
+    // Size of a cell (as a shift, and in pixels).
+    public static final int CELL_SHIFT = 8;
+    public static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    // Number of cells sent to the pool as one task.
+    private static final int CELLS_PER_TASK = 4;
+
+    private final Playfield pf;
+    private final int threads;
+    private final ForkJoinPool pool;
+
+    // The cells, indexed by row then column, and their buffers.
+    private final int cellsWide;
+    private final int cellsHigh;
+    private final ArrayList<ArrayList<Entity>> cells;
+    private final EffectBuffer[] buffers;
+
+    // The cells holding entities in the colour being run.
+    private int[] running;
+    private int numRunning = 0;
+
+    // Constructor. With one thread, every cell is run on the
+    //   calling thread and no pool is made.
+    public TickExecutor(Playfield pf, int threads) {
+        this.pf = pf;
+        this.threads = threads;
+        this.pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        this.cellsWide = ((pf.levelWidth() - 1) >> CELL_SHIFT) + 1;
+        this.cellsHigh = ((pf.levelHeight() - 1) >> CELL_SHIFT) + 1;
+        int n = cellsWide * cellsHigh;
+        this.cells = new ArrayList<ArrayList<Entity>>(n);
+        this.buffers = new EffectBuffer[n];
+        for (int i = 0; i < n; ++i) {
+            cells.add(new ArrayList<Entity>());
+            buffers[i] = new EffectBuffer();
+        }
+        this.running = new int[n];
+    }
+
+    public int getThreads() { return threads; }
+
+    // Stop the pool's threads.
+    public void shutdown() {
+        if (pool != null) pool.shutdown();
+    }
+
+    // Let each of the given entities (other than the player) act one
+    //   framestep. An entity removed or deactivated before its turn
+    //   does not act.
+    public void actAll(ArrayList<Entity> acting) {
+
+        // Put each entity in its cell.
+        for (int i = 0; i < acting.size(); ++i) {
+            Entity t = acting.get(i);
+            if (t instanceof Player) continue;
+            cells.get(cellOf(t)).add(t);
+        }
+
+        // Run the cells of each colour, then apply their effects.
+        for (int colour = 0; colour < 4; ++colour) {
+            numRunning = 0;
+            for (int cy = colour >> 1; cy < cellsHigh; cy += 2) {
+                for (int cx = colour & 1; cx < cellsWide; cx += 2) {
+                    int c = cy*cellsWide + cx;
+                    if (!cells.get(c).isEmpty()) running[numRunning++] = c;
+                }
+            }
+            if (numRunning == 0) continue;
+            if (pool == null || numRunning == 1) runCells(0, numRunning);
+            else pool.invoke(new CellTask(0, numRunning));
+            for (int i = 0; i < numRunning; ++i) {
+                int c = running[i];
+                buffers[c].commit(pf);
+                cells.get(c).clear();
+            }
+        }
+
+    } // end method actAll
+
+    // Get the cell the given entity's position lies in.
+    private int cellOf(Entity t) {
+        int cx = t.x() >> CELL_SHIFT;
+        int cy = t.y() >> CELL_SHIFT;
+        if (cx < 0) cx = 0;
+        if (cx > cellsWide - 1) cx = cellsWide - 1;
+        if (cy < 0) cy = 0;
+        if (cy > cellsHigh - 1) cy = cellsHigh - 1;
+        return cy*cellsWide + cx;
+    }
+
+    // Run the cells running[from] to running[to - 1].
+    private void runCells(int from, int to) {
+        for (int i = from; i < to; ++i) runCell(running[i]);
+    }
+
+    // Let the entities of one cell act, recording their effects in
+    //   the cell's buffer.
+    private void runCell(int c) {
+        ArrayList<Entity> list = cells.get(c);
+        EffectBuffer buffer = buffers[c];
+        buffer.begin();
+        try {
+            for (int i = 0; i < list.size(); ++i) {
+                Entity t = list.get(i);
+                if (t.isRemoved() || !pf.isActive(t)) continue;
+                t.act();
+            }
+        }
+        finally {
+            buffer.end();
+        }
+    }
+
+    // Runs a range of the cells of one colour, split in halves until
+    //   small enough.
+    private class CellTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        CellTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from <= CELLS_PER_TASK) {
+                runCells(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CellTask(from, mid), new CellTask(mid, to));
+        }
+
+    } // end class CellTask
+
+} // end class TickExecutor
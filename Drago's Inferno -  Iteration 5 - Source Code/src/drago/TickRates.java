@@ -0,0 +1,107 @@
+/*
+ * TickRates.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import entity.Entity;
+import entity.Player;
+
+/**
+ * How often each system of the simulation runs.
+ *
+ * Motion (an entity's act method) runs every tick near the player. An
+ * entity that allows it (see Entity.canActLess) acts less often the
+ * farther it is from the player: the distance rings divide the active
+ * region, and each ring has a number of ticks between actions. When
+ * such an entity does act, it is told how many ticks the action
+ * covers (see Entity.getActTicks) and moves that much further, so
+ * its speed is kept.
+ *
+ * Archer path searches and walking animation have their own rates,
+ * given in Hz and run as a whole number of ticks.
+ *
+ * The rates decide the outcome of a run, so they are written in
+ * replay files (see ReplayWriter).
+ *
+ */
+public class TickRates
+{
+    // Outer edges of the distance rings (along either axis from the
+    //   player), and the ticks between actions in each ring (one
+    //   more ring than edges: the last lies beyond the last edge).
+    private final int[] ringEdges;
+    private final int[] ringTicks;
+    private final int maxRingTicks;
+
+    // Ticks between path searches and between animation steps.
+    private final int searchTicks;
+    private final int animTicks;
+
+    // Constructor.
+    public TickRates(int[] ringEdges, int[] ringTicks, int searchTicks, int animTicks) {
+        if (ringTicks.length != ringEdges.length + 1)
+            error("TickRates", "need one more ring rate than ring edges");
+        for (int i = 0; i < ringTicks.length; ++i)
+            if (ringTicks[i] < 1) error("TickRates", "ring rates must be at least one tick");
+        this.ringEdges = ringEdges.clone();
+        this.ringTicks = ringTicks.clone();
+        int max = 1;
+        for (int i = 0; i < ringTicks.length; ++i) max = Math.max(max, ringTicks[i]);
+        this.maxRingTicks = max;
+        this.searchTicks = Math.max(searchTicks, 1);
+        this.animTicks = Math.max(animTicks, 1);
+    }
+
+    // Make rates from the given options.
+    public static TickRates fromOptions(GameOptions options) {
+        return new TickRates(
+                options.ringEdges,
+                options.ringTicks,
+                ticksFor(options.searchHz),
+                ticksFor(options.animHz));
+    }
+
+    // Number of whole ticks in one period of the given rate.
+    private static int ticksFor(int hz) {
+        return Math.max(1, Math.round(1000.0f / (hz * GameWorld.MILLIS_PER_TICK)));
+    }
+
+    public int numRings() { return ringTicks.length; }
+    public int getRingEdge(int ring) { return ringEdges[ring]; }
+    public int getRingTicks(int ring) { return ringTicks[ring]; }
+    public int getSearchTicks() { return searchTicks; }
+    public int getAnimTicks() { return animTicks; }
+
+    // Get the ticks between actions of the given entity.
+    public int ticksFor(Entity t, Player ply) {
+        if (!t.canActLess()) return 1;
+        int d = Math.max(Math.abs(t.x() - ply.x()), Math.abs(t.y() - ply.y()));
+        int ring = 0;
+        while (ring < ringEdges.length && d > ringEdges[ring]) ++ring;
+        return ringTicks[ring];
+    }
+
+    // Whether the given entity is due to act in the given tick. If so,
+    //   the number of ticks its action covers is set: those since it
+    //   last acted, but no more than the slowest ring's, so that time
+    //   spent frozen outside the active region is not made up.
+    public boolean isDue(Entity t, Player ply, long tick) {
+        if (!t.canActLess()) {
+            t.setActTicks(tick, 1);
+            return true;
+        }
+        int step = ticksFor(t, ply);
+        long last = t.getLastActTick();
+        long elapsed = (last < 0) ? step : tick - last;
+        if (elapsed < step) return false;
+        t.setActTicks(tick, (int)Math.min(elapsed, maxRingTicks));
+        return true;
+    }
+
+    private static void error(String function, String message) {
+        System.out.println("TickRates." + function + "(): " + message);
+        System.exit(1);
+    }
+
+} // end class TickRates
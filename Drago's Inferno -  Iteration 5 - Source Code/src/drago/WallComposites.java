@@ -0,0 +1,81 @@
+/*
+ * WallComposites.java (v1.0)
+ * 10/18/2026
+ */
+package drago;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+
+/**
+ * The walls of a playfield, composed ahead of time: for each grid
+ * square, the sprites of its back wall (drawn before the entities of
+ * its row) are stacked into a single sprite, and likewise those of
+ * its front wall (drawn after them), so that each is drawn with one
+ * call instead of up to three.
+ *
+ * Walls never change, so the composites are made once, when the
+ * level is loaded (see GamePanel.setPlayfield). Squares with the same
+ * combination of wall sprites share one composite, which is added to
+ * the sprite atlas like any other sprite.
+ *
+ */
+public class WallComposites
+{
+    // Sprites (atlas ids) of each square's back and front walls, or -1
+    //   for none.
+    private final int[][] back;
+    private final int[][] front;
+
+    // The composites made, by the sprites and offsets they stack.
+    private final HashMap<String, Integer> made = new HashMap<String, Integer>();
+
+    // Constructor, for a grid of the given size with no walls yet.
+    public WallComposites(int gridWidth, int gridHeight) {
+        back = new int[gridWidth][gridHeight];
+        front = new int[gridWidth][gridHeight];
+        for (int x = 0; x < gridWidth; ++x) {
+            for (int y = 0; y < gridHeight; ++y) {
+                back[x][y] = -1;
+                front[x][y] = -1;
+            }
+        }
+    }
+
+    public int getBack(int x, int y) { return back[x][y]; }
+    public int getFront(int x, int y) { return front[x][y]; }
+    public void setBack(int x, int y, int sprite) { back[x][y] = sprite; }
+    public void setFront(int x, int y, int sprite) { front[x][y] = sprite; }
+
+    // Number of distinct composites made.
+    public int numComposites() { return made.size(); }
+
+    // Get a sprite of the first 'n' given sprites stacked, each with
+    //   its top at the given offset, in order. A single sprite at no
+    //   offset is its own composite.
+    public int stack(int[] sprites, int[] offsets, int n) {
+        if (n == 1 && offsets[0] == 0) return sprites[0];
+        StringBuilder key = new StringBuilder();
+        int width = 0;
+        int height = 0;
+        for (int i = 0; i < n; ++i) {
+            key.append(sprites[i]).append('@').append(offsets[i]).append(' ');
+            width = Math.max(width, SpriteAtlas.GAME.getWidth(sprites[i]));
+            height = Math.max(height, offsets[i] + SpriteAtlas.GAME.getHeight(sprites[i]));
+        }
+        Integer composite = made.get(key.toString());
+        if (composite != null) return composite;
+
+        BufferedImage image = SpriteAtlas.GAME.createImage(width, height);
+        Graphics2D g2d = image.createGraphics();
+        for (int i = 0; i < n; ++i) {
+            SpriteAtlas.GAME.draw(g2d, sprites[i], 0, offsets[i]);
+        }
+        g2d.dispose();
+        int id = SpriteAtlas.GAME.add(image);
+        made.put(key.toString(), id);
+        return id;
+    }
+
+} // end class WallComposites
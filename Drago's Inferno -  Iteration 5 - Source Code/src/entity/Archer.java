@@ -4,11 +4,11 @@
  */
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.util.LinkedList;
 import java.util.ArrayList;
 
 import drago.DragoStatics;
+import drago.SpriteSets;
 
 import playfield.BSPLeaf;
 import playfield.BSPNode;
@@ -32,14 +32,30 @@ import playfield.MapGridSquare;
  */
 public class Archer extends Walker
 {
-    private static ArrayList<ArrayList<ArrayList<BufferedImage>>>
-        walkingSprites = new ArrayList<ArrayList<ArrayList<BufferedImage>>>();
+    private static ArrayList<ArrayList<ArrayList<Integer>>>
+        walkingSprites = new ArrayList<ArrayList<ArrayList<Integer>>>();
     
     // Random value to determine which part of a portal to walk toward
     //   during an A* search.
     private boolean needNewSearchVal = false; 
     private int portalSearchVal = 0;
     
+    // Distance from the player (along either axis) beyond which an
+    //   archer searches at the 'far' rate, and the margin around the
+    //   view within which it animates at the full rate (see
+    //   Playfield.setDetail).
+    private static final int FAR_DISTANCE = 400;
+    private static final int VIEW_MARGIN = 64;
+    
+    // The path of the last search, kept for reuse until the next
+    //   search is due while the archer is still in the same leaf;
+    //   ticks until the next search, and ticks passed since the last
+    //   animation step.
+    private LinkedList<AStarNode> lastPath = null;
+    private BSPLeaf lastPathLeaf = null;
+    private int searchCountdown = 0;
+    private int animPending = 0;
+    
     // Archer's constructor.
     public Archer(int x, int y, String beginFacing, Playfield pf) {
         
@@ -70,10 +86,11 @@ public class Archer extends Walker
     public static void loadSprites() {
         Walker.loadSprites("ARCHER", walkingSprites);
     }
-    private static BufferedImage getSprite(int set, int direction, int number) {
+    private static int getSprite(int set, int direction, int number) {
         return walkingSprites.get(set).get(direction).get(number);
     }
-    public BufferedImage getCurrentSprite() {
+    public int getCurrentSprite() {
+        if (!SpriteSets.GAME.ensure(SpriteSets.ARCHER)) return SpriteSets.GAME.getPlaceholder();
         int set = 0;
         int n = 0;
         int sc = this.getStateCounter();
@@ -99,6 +116,10 @@ public class Archer extends Walker
         }
     }
     
+    // An archer may act less often far from the player.
+    @Override
+    public boolean canActLess() { return true; }
+    
     // Archer's act method.
     public void act() {
         
@@ -127,10 +148,38 @@ public class Archer extends Walker
         // Otherwise, do A* search.
         else {
          
-            AStarSearch finder = new AStarSearch(this.ppf.bsp);
             int plx = this.ppf.player.x();
             int ply = this.ppf.player.y();
-            path = finder.findPath(this.x(), this.y(), plx, ply, this.ppf);
+            
+            // Reuse the last path until the next search is due (sooner
+            //   if far from the player), while still in the leaf it
+            //   was found from.
+            int searchTicks = this.ppf.getSearchTicks();
+            if (Math.abs(plx - this.x()) > FAR_DISTANCE || Math.abs(ply - this.y()) > FAR_DISTANCE) {
+                searchTicks = this.ppf.getFarSearchTicks();
+            }
+            BSPLeaf leaf = null;
+            if (searchTicks > 1) leaf = BSPNode.getLeaf(this.ppf.bsp, this.x(), this.y());
+            searchCountdown -= this.getActTicks();
+            if (    (searchCountdown > 0) && (lastPath != null)
+                 && (leaf != null) && (leaf == lastPathLeaf) )
+            {
+                path = new LinkedList<AStarNode>(lastPath);
+            }
+            else {
+                AStarSearch finder = new AStarSearch(this.ppf.bsp);
+                path = finder.findPath(this.x(), this.y(), plx, ply, this.ppf);
+                if ((searchTicks > 1) && (path != null) && (leaf != null)) {
+                    lastPath = new LinkedList<AStarNode>(path);
+                    lastPathLeaf = leaf;
+                    searchCountdown = searchTicks;
+                }
+                else {
+                    lastPath = null;
+                    lastPathLeaf = null;
+                    searchCountdown = 0;
+                }
+            }
 
         }
         
@@ -423,11 +472,15 @@ public class Archer extends Walker
         }
         if (VERBOSE) System.out.println("Searcher position before move: "
                 + "(" + this.x() + ", " + this.y() + ")");
+        
+        // Move as far as the ticks this action covers allow.
+        int n = this.getActTicks();
+        int reach = this.getSpeed()*n;
         int dist = dx*dx + dy*dy;
         dist = DragoStatics.sqrt(dist);
-        if ((dist != 0) && (dist > this.getSpeed())) {
-            int newdx = (dx*this.getSpeed()) / dist;
-            int newdy = (dy*this.getSpeed()) / dist;
+        if ((dist != 0) && (dist > reach)) {
+            int newdx = (dx*reach) / dist;
+            int newdy = (dy*reach) / dist;
             if ((newdx == 0) && (dx != 0)) newdx += DragoStatics.sign(dx);
             if ((newdy == 0) && (dy != 0)) newdy += DragoStatics.sign(dy);
             dx = newdx;
@@ -439,10 +492,18 @@ public class Archer extends Walker
         else if ((dx > 0) && (dy < 0)) this.setFacing(Entity.F_DOWN_RIGHT);
         else if ((dx < 0) && (dy > 0)) this.setFacing(Entity.F_UP_LEFT);
         else if ((dx < 0) && (dy < 0)) this.setFacing(Entity.F_DOWN_LEFT);
-        this.setdx(dx);
-        this.setdy(dy);
-        this.attemptMotion(this.dx(), this.dy(), this.dz(), false, false);
-        this.tickStateCounter();
+        this.setdx(dx / n);
+        this.setdy(dy / n);
+        this.attemptMotion(dx, dy, this.dz()*n, false, false);
+        
+        // Step the walking animation by the ticks passed, once its
+        //   rate allows (less often off screen).
+        int animTicks = this.ppf.isInView(this, VIEW_MARGIN)
+                ? this.ppf.getAnimTicks() : this.ppf.getOffscreenAnimTicks();
+        animPending += n;
+        if (animPending >= animTicks) {
+            for (; animPending > 0; --animPending) this.tickStateCounter();
+        }
 
     } // end method act
 }
@@ -1,10 +1,11 @@
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
 
-import javax.imageio.ImageIO;
+import drago.AssetLoader;
+import drago.SpriteAtlas;
+import drago.SpriteSets;
 
 import playfield.Fieldpoint;
 import playfield.Playfield;
@@ -12,7 +13,7 @@ import playfield.Polygon;
 
 public class BlueEgg extends Entity
 {
-    private static BufferedImage sprite;
+    private static int sprite;
     
     // Egg constructor.
     public BlueEgg(int x, int y, String beginFacing, Playfield pf) {
@@ -37,7 +38,7 @@ public class BlueEgg extends Entity
         try {
             File imgfile = new File(filename);
             if (!imgfile.exists()) throw new Exception();
-            sprite = ImageIO.read(imgfile);
+            sprite = SpriteAtlas.GAME.add(AssetLoader.read(imgfile));
         }
         catch (Exception e) {
             System.out.println("Exception while loading Egg image!");
@@ -45,8 +46,12 @@ public class BlueEgg extends Entity
             System.exit(1);
         }
     }
-    private static BufferedImage getSprite() { return sprite; }
-    public BufferedImage getCurrentSprite() { return sprite; }
-    public void act() {}
+    private static int getSprite() { return sprite; }
+    public int getCurrentSprite() {
+        if (!SpriteSets.GAME.ensure(SpriteSets.BLUE_EGG)) return SpriteSets.GAME.getPlaceholder();
+        return sprite;
+    }
+    // An egg has nothing to do until taken, so it sleeps.
+    public void act() { this.sleep(); }
 
 }
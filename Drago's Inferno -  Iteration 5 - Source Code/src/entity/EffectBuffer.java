@@ -0,0 +1,135 @@
+/*
+ * EffectBuffer.java (v1.0)
+ * 10/18/2026
+ */
+package entity;
+
+import drago.DragoStatics;
+
+import playfield.Playfield;
+
+/**
+ * Records the effects an entity's action has beyond its own part of
+ * the playfield, so that entities can act on several threads at once
+ * (see drago.TickExecutor) and the effects be applied afterwards, on
+ * one thread, in a fixed order.
+ *
+ * While a buffer is current on a thread ('begin' to 'end'), the
+ * following are recorded by it instead of being carried out:
+ *   - entities disappearing (see Entity.disappear),
+ *   - entities added to or removed from the playfield or its active
+ *     list, entities reattached to the grid, and entities going to
+ *     sleep or waking (see Playfield),
+ *   - damage dealt in collisions (see Entity.takeDamage),
+ *   - sounds (see DragoStatics.playSound).
+ * With no current buffer, each of these is carried out at once, as
+ * before.
+ *
+ */
+public class EffectBuffer
+{
+    // Kinds of effect.
+    public static final int FX_DISAPPEAR = 0;
+    public static final int FX_ADD_ENTITY = 1;
+    public static final int FX_REMOVE_ENTITY = 2;
+    public static final int FX_ACTIVATE = 3;
+    public static final int FX_DEACTIVATE = 4;
+    public static final int FX_MOVED = 5;
+    public static final int FX_DAMAGE = 6;
+    public static final int FX_TAILSTRIKE = 7;
+    public static final int FX_SOUND = 8;
+    public static final int FX_SLEEP = 9;
+    public static final int FX_WAKE = 10;
+
+    // The buffer current on each thread, if any.
+    private static final ThreadLocal<EffectBuffer> current = new ThreadLocal<EffectBuffer>();
+
+    // Get the buffer current on this thread (null if none).
+    public static EffectBuffer current() {
+        return current.get();
+    }
+
+    // The effects recorded, in order.
+    private int[] kinds = new int[64];
+    private Entity[] entities = new Entity[64];
+    private int[] amounts = new int[64];
+    private String[] sounds = new String[64];
+    private int count = 0;
+
+    public int size() { return count; }
+
+    // Make this the current buffer of this thread.
+    public void begin() {
+        current.set(this);
+    }
+
+    // Stop recording on this thread.
+    public void end() {
+        current.remove();
+    }
+
+    // Record an effect on an entity.
+    public void record(int kind, Entity t) {
+        record(kind, t, 0, null);
+    }
+
+    // Record a sound to be played.
+    public void recordSound(String sndfile) {
+        record(FX_SOUND, null, 0, sndfile);
+    }
+
+    // Record damage to an entity (FX_DAMAGE or FX_TAILSTRIKE).
+    public void recordDamage(int kind, Entity t, int damage) {
+        record(kind, t, damage, null);
+    }
+
+    private void record(int kind, Entity t, int amount, String sound) {
+        if (count == kinds.length) grow();
+        kinds[count] = kind;
+        entities[count] = t;
+        amounts[count] = amount;
+        sounds[count] = sound;
+        ++count;
+    }
+
+    private void grow() {
+        int n = count << 1;
+        int[] nkinds = new int[n];
+        Entity[] nentities = new Entity[n];
+        int[] namounts = new int[n];
+        String[] nsounds = new String[n];
+        System.arraycopy(kinds, 0, nkinds, 0, count);
+        System.arraycopy(entities, 0, nentities, 0, count);
+        System.arraycopy(amounts, 0, namounts, 0, count);
+        System.arraycopy(sounds, 0, nsounds, 0, count);
+        kinds = nkinds;
+        entities = nentities;
+        amounts = namounts;
+        sounds = nsounds;
+    }
+
+    // Carry out the recorded effects in the order recorded, then
+    //   empty the buffer. Must be called with no buffer current.
+    public void commit(Playfield pf) {
+        for (int i = 0; i < count; ++i) {
+            Entity t = entities[i];
+            switch (kinds[i]) {
+            case FX_DISAPPEAR:     t.vanish();                     break;
+            case FX_ADD_ENTITY:    pf.addEntity(t);                break;
+            case FX_REMOVE_ENTITY: pf.removeEntity(t);             break;
+            case FX_ACTIVATE:      pf.addActiveEntity(t);          break;
+            case FX_DEACTIVATE:    pf.removeActiveEntity(t);       break;
+            case FX_MOVED:         pf.onEntityMoved(t);            break;
+            case FX_DAMAGE:        t.takeDamage(amounts[i], false); break;
+            case FX_TAILSTRIKE:    t.takeDamage(amounts[i], true);  break;
+            case FX_SOUND:         DragoStatics.playSound(sounds[i]); break;
+            case FX_SLEEP:         pf.onEntitySlept(t);            break;
+            case FX_WAKE:          pf.onEntityWoken(t);            break;
+            }
+            entities[i] = null;
+            sounds[i] = null;
+        }
+        count = 0;
+    }
+
+} // end class EffectBuffer
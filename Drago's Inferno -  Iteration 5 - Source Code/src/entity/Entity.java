@@ -5,10 +5,6 @@
 package entity;
 
 import java.util.ArrayList;
-import java.awt.Font;
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import java.awt.Color;
 import java.io.File;
 import javax.sound.sampled.Clip;
 import javax.sound.sampled.AudioSystem;
@@ -16,8 +12,11 @@ import javax.sound.sampled.AudioInputStream;
 
 import drago.DragoStatics;
 import drago.Fraction; // Not used yet.
+import drago.SpriteAtlas;
+import drago.SpriteEffects;
 
 import playfield.MapGridSquare;
+import playfield.GridSelection;
 import playfield.Playfield;
 import playfield.Polygon;
 import playfield.Fieldpoint;
@@ -72,6 +71,26 @@ abstract public class Entity {
 	public void addx(int dx) { xLocation += dx; }
 	public void addy(int dy) { yLocation += dy; }
 	public void addz(int dz) { zLocation += dz; }
+	
+	// The location at the start of a tick, saved by GameWorld for the
+	//   entities that may move in it, and the tick it was saved for
+	//   (so that the renderer can draw in between ticks).
+	private int xPrevLocation;
+	private int yPrevLocation;
+	private int zPrevLocation;
+	private long prevTick = -1;
+	public void savePosition(long tick) {
+		xPrevLocation = xLocation;
+		yPrevLocation = yLocation;
+		zPrevLocation = zLocation;
+		prevTick = tick;
+	}
+	
+	// The location at the start of the given tick, or the current
+	//   location if it was not saved for that tick.
+	public int prevx(long tick) { return (prevTick == tick) ? xPrevLocation : xLocation; }
+	public int prevy(long tick) { return (prevTick == tick) ? yPrevLocation : yLocation; }
+	public int prevz(long tick) { return (prevTick == tick) ? zPrevLocation : zLocation; }
 	    
 	// Physical height of entity.
 	private int height;
@@ -220,7 +239,10 @@ abstract public class Entity {
 	//   This will vary by entity type, so method is made abstract.
 	protected int stateCounter;
 	public int getStateCounter() { return stateCounter; }
-	public void setStateCounter(int frames) { stateCounter = frames; }
+	public void setStateCounter(int frames) {
+	    stateCounter = frames;
+	    if (frames != 0) wake();
+	}
 	abstract public void tickStateCounter();
 	
 	// The actual state of the entity, as used in collision response.
@@ -229,7 +251,10 @@ abstract public class Entity {
 	//   human states, item states, etc.)
 	private int state;
 	public int getState() { return state; }
-	public void setState(int newState) { state = newState; }
+	public void setState(int newState) {
+	    if (newState != state) wake();
+	    state = newState;
+	}
 	
 	// The default starting state (e.g., standing). Will be
 	//   overridden in subclasses.
@@ -335,71 +360,142 @@ abstract public class Entity {
 	//   in the game loop.
 	abstract public void act();
 
+	// Whether the entity may act less often than every tick when far
+	//   from the player (see drago.TickRates); the number of ticks the
+	//   current call of 'act' covers, and the tick of that call. An
+	//   entity that acts less often must move (and count down) that
+	//   many ticks' worth in one call.
+	private int actTicks = 1;
+	private long lastActTick = -1;
+	public boolean canActLess() { return false; }
+	public int getActTicks() { return actTicks; }
+	public long getLastActTick() { return lastActTick; }
+	public void setActTicks(long tick, int ticks) {
+	    lastActTick = tick;
+	    actTicks = ticks;
+	}
+
+	// Whether the entity is dormant. An entity with nothing to do
+	//   until something happens to it (e.g., a tree) may put itself
+	//   to sleep at the end of its act method; it then stays in the
+	//   active region but is kept off the list of entities that act
+	//   (see ActiveRegion). It is woken when its state or state
+	//   counter is changed, when it takes damage, or when an
+	//   explosion goes off on its squares.
+	private boolean dormant = false;
+	public boolean isDormant() { return dormant; }
+	protected void sleep() {
+	    if (dormant || stateCounter != 0) return;
+	    dormant = true;
+	    if (ppf != null) ppf.onEntitySlept(this);
+	}
+	public void wake() {
+	    if (!dormant) return;
+	    dormant = false;
+	    if (ppf != null) ppf.onEntityWoken(this);
+	}
+
+	// Whether the entity has disappeared from the playfield.
+	private boolean removed = false;
+	public boolean isRemoved() { return removed; }
+	
 	// Method to remove this entity from the playfield, including its
-	//   squares and its active entities.
-	public void disappear() {
+	//   squares and its active entities. If an effect buffer is
+	//   recording (see EffectBuffer), the entity leaves its squares
+	//   at once, so that nothing else collides with it, and the rest
+	//   is done when the buffer is committed.
+	public final void disappear() {
+	    if (removed) return;
+	    removed = true;
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer == null) {
+	        vanish();
+	        return;
+	    }
+        for (int i = 0; i < this.squares.size(); ++i)
+            this.squares.get(i).entities.remove(this);
+        this.squares.clear();
+        buffer.record(EffectBuffer.FX_DISAPPEAR, this);
+	}
+	
+	// The work of 'disappear'. Subclasses that must do more when
+	//   removed (e.g., Tree) override this.
+	protected void vanish() {
         for (int i = 0; i < this.squares.size(); ++i)
             this.squares.get(i).entities.remove(this);
         this.ppf.removeActiveEntity(this);
         this.ppf.removeEntity(this);
 	}
 	
-	// The sprite set for the given entity and the method to draw the sprite.
-	// Note: the method 'drawSprite' is temporary until Ryan Alain finishes
-	//   implementation of the SpriteSequence class, which should contain
-	//   a list of sprites and their locations to be drawn in an order that
-	//   causes them to overlap correctly.
-	abstract public BufferedImage getCurrentSprite();
-	public void drawSprite(Graphics2D g2d, int xcam, int ycam) {
-		
-	    boolean VERBOSE = false;
-	    
-		boolean BOUNDING_POLY = false;
-		boolean POLY_OF_MOTION = false;
-		boolean ATTEMPT_MOTION_TEST = false;
-		
-		Polygon poly = null;
-		
-		if (VERBOSE && (this instanceof Fireball)) System.out.println("Now" +
-				" attempting to draw a Fireball");
-		
-		// Draw sprite centered around current location.
-		//int drawx = (this.x() - (getCurrentSprite().getWidth() >> 1)) - xcam;
-		//int drawy = 480 - ((this.y() + (getCurrentSprite().getHeight() >> 1)) - ycam);
-		int drawx = this.bboxx + ((this.bboxwidth - getCurrentSprite().getWidth()) >> 1) - xcam;
-		int drawy = 480 - (this.bboxy + getCurrentSprite().getHeight() - ycam);
-		g2d.drawImage(getCurrentSprite(), drawx, drawy - this.z(), null);
-		if (this instanceof Player) {
-		    g2d.setColor(Color.WHITE);
-	        g2d.setFont(new Font("Arial", Font.BOLD, 14));
-		    //g2d.drawString("Dragon's (x, y) = (" + this.x() + ", " + this.y() + ")", 20, 40);
-		    DragoStatics.drawShadedString("Dragon's (x, y) = (" + this.x() + ", " + this.y() + ")", 20, 40, g2d);
-		    Player pl = (Player)this;
-		    DragoStatics.drawShadedString("Dragon's speed is " + pl.getSpeed(), 20, 60, g2d); 
-		}
-		
-		// Draw either the bounding polygon or the polygon of motion (possibly both)
-		//   along with the entity. Used for testing.
-		for (int i = 0; i < 2; ++i) {
-		    
-		    boolean flag = false;
-		    Color color = Color.BLACK;
-		    switch (i) {
-		    case 0: flag = BOUNDING_POLY; poly = boundingPoly; color = Color.WHITE; break;
-		    case 1: flag = POLY_OF_MOTION; poly = this.getPolyOfMotion(dx(), dy()); color = Color.BLUE; break;
-		    }
-		    
-   		    if (flag) poly.draw(g2d, xcam, ycam, color);
-		    
-		} // end for (by flag)
-
-		if (ATTEMPT_MOTION_TEST) {
-		    Color color = Color.CYAN;
-		    for (int i = 0; i < pathTestPolyCount; ++i)
-		        pathTestPoly[i].draw(g2d, xcam, ycam, color);
-		}
-
-	} // end method drawSprite
+	// Deal damage to another entity in a collision, or record it if
+	//   an effect buffer is recording. 'tailstrike' is for damage by
+	//   the player's tail.
+	protected void dealDamage(Entity target, int damage, boolean tailstrike) {
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer == null) target.takeDamage(damage, tailstrike);
+	    else buffer.recordDamage(
+	            tailstrike ? EffectBuffer.FX_TAILSTRIKE : EffectBuffer.FX_DAMAGE,
+	            target,
+	            damage);
+	}
+	
+	// Take damage dealt in a collision. A slain enemy is replaced with
+	//   an explosion.
+	void takeDamage(int damage, boolean tailstrike) {
+	    if (removed) return;
+	    this.wake();
+	    this.addHealth(-damage);
+	    if (tailstrike) {
+            if (this.getHealth() == 0)
+                this.setState(ST_HUMAN_DEAD); // Move all this to 'addHealth'?
+            else
+                this.setState(ST_HUMAN_TAILSTRUCK);
+            return;
+	    }
+        if (this.getHealth() == 0) {
+            if (this instanceof Player) {
+                this.setState(ST_PLAYER_DEAD);
+            }
+            else {
+                
+                // Replace enemy with an explosion if the enemy was slain.
+                int slainx = this.x();
+                int slainy = this.y();
+                this.disappear();
+                Explosion expl = new Explosion(
+                        slainx,
+                        slainy,
+                        "UP",
+                        this.ppf);
+                this.ppf.addEntity(expl);
+                this.ppf.addActiveEntity(expl);
+                
+                // Play an explosion sound effect.
+                DragoStatics.playSound("EXPLOSION_1.wav");
+            }
+        }
+	} // end method takeDamage
+	
+	// The sprite set for the given entity (as an id in the sprite
+	//   atlas, see drago.SpriteAtlas) and the location to draw the
+	//   sprite at. The sprite is centered horizontally on the bounding
+	//   box and rests on its lower edge; altitude ('z') is applied by
+	//   the renderer. These are called by the simulation thread when
+	//   it captures a frame snapshot (see drago.FrameSnapshot).
+	abstract public int getCurrentSprite();
+	public int getSpriteX(int xcam) {
+		return this.bboxx + ((this.bboxwidth - SpriteAtlas.GAME.getWidth(getCurrentSprite())) >> 1) - xcam;
+	}
+	public int getSpriteY(int ycam) {
+		return 480 - (this.bboxy + SpriteAtlas.GAME.getHeight(getCurrentSprite()) - ycam);
+	}
+	
+	// The effect the sprite is drawn with (see drago.SpriteEffects),
+	//   and its color; none by default. An entity that should flash,
+	//   e.g. after taking damage, overrides these; the variant of the
+	//   sprite is made when first drawn.
+	public int getSpriteEffect() { return SpriteEffects.NONE; }
+	public int getSpriteEffectColor() { return 0; }
 	
 	// Methods to attach/remove grid squares to/from entity's list.
 	public void attachSquare(MapGridSquare square) { squares.add(square); }
@@ -424,22 +520,25 @@ abstract public class Entity {
 		
 		// Make a grid selection using this entity's bounding
 		//   polygon.
-		ppf.makeGridSelection(this.boundingPoly);
+		GridSelection sel = ppf.makeGridSelection(this.boundingPoly);
 		
 		// Attach all squares selected to this entity, and attach
 		//   entity to those squares.
-		for (int row = ppf.gridSelectionLowestRow[0];
-				row <= ppf.gridSelectionHighestRow[0];
+		for (int row = sel.lowestRow[0];
+				row <= sel.highestRow[0];
 				++row)
 		{
-			for (int col = ppf.gridSelectionLeft[0][row];
-					col <= ppf.gridSelectionRight[0][row];
+			for (int col = sel.left[0][row];
+					col <= sel.right[0][row];
 					++col)
 			{
 				this.attachSquare(ppf.gameGrid[col][row]);
 				ppf.gameGrid[col][row].entities.add(this);
 			}
 		}
+		
+		// Let the playfield's active region know.
+		ppf.onEntityMoved(this);
 	
 	} // end method attach
 	
@@ -1499,55 +1598,14 @@ abstract public class Entity {
 	    // Destructive effects on collidee.
         if ((flags & CollisionTable.CT_DAMAGE) != 0) {
             int damage = CollisionTable.damageGiven[this.getState()][collideeState[respl]];
-            collideeEntity[respl].addHealth(-damage);
-            if (collideeEntity[respl].getHealth() == 0) {
-                if (collideeEntity[respl] instanceof Player) {
-                    collideeEntity[respl].setState(ST_PLAYER_DEAD);
-                }
-                else {
-                    
-                    // Replace enemy with an explosion if the enemy was slain.
-                    int slainx = collideeEntity[respl].x();
-                    int slainy = collideeEntity[respl].y();
-                    collideeEntity[respl].disappear();
-                    Explosion expl = new Explosion(
-                            slainx,
-                            slainy,
-                            "UP",
-                            this.ppf);
-                    this.ppf.addEntity(expl);
-                    this.ppf.addActiveEntity(expl);
-                    
-                    // Play an explosion sound effect.
-                    DragoStatics.playSound("EXPLOSION_1.wav");
-                    /*
-                    try {
-                        Clip clip = AudioSystem.getClip();
-                        File sfx = new File("sfx\\EXPLOSION_1.wav");
-                        AudioInputStream inputStream = AudioSystem.getAudioInputStream(sfx);
-                        clip.open(inputStream);
-                        clip.start();
-                    }
-                    catch (Exception e) {
-                        System.out.println("Exception while playing sound!");
-                        e.printStackTrace();
-                        System.exit(1);
-                    }
-                    */
-
-                }
-            }
+            dealDamage(collideeEntity[respl], damage, false);
         }
         if ((flags & CollisionTable.CT_SHATTER) != 0) {
             collideeEntity[respl].setState(ST_HUMAN_SHATTERING);
         }
         if ((flags & CollisionTable.CT_TAILSTRIKE_TARGET) != 0) {
             int damage = CollisionTable.damageGiven[this.getState()][collideeState[respl]];
-            collideeEntity[respl].addHealth(-damage);
-            if (collideeEntity[respl].getHealth() == 0)
-                collideeEntity[respl].setState(ST_HUMAN_DEAD); // Move all this to 'addHealth'?
-            else
-                collideeEntity[respl].setState(ST_HUMAN_TAILSTRUCK);
+            dealDamage(collideeEntity[respl], damage, true);
         }
 	    if ((flags & CollisionTable.CT_DESTROY) != 0) {
 	     
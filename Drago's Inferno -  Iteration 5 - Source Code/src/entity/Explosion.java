@@ -4,13 +4,15 @@
  */
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
 
-import javax.imageio.ImageIO;
+import drago.AssetLoader;
+import drago.SpriteAtlas;
+import drago.SpriteSets;
 
 import playfield.Fieldpoint;
+import playfield.MapGridSquare;
 import playfield.Playfield;
 import playfield.Polygon;
 
@@ -23,7 +25,7 @@ import playfield.Polygon;
 
 public class Explosion extends Entity
 {
-    private static ArrayList<BufferedImage> sprites = new ArrayList<BufferedImage>();
+    private static ArrayList<Integer> sprites = new ArrayList<Integer>();
     
     // Constructor.
     public Explosion(int x, int y, String beginFacing, Playfield pf) {
@@ -49,8 +51,13 @@ public class Explosion extends Entity
         Fieldpoint fp4 = new Fieldpoint(x + 20, y + 20);
         this.setBoundingPoly(new Polygon(fp1, fp2, fp3, fp4));
         
-        // Attach the explosion to the game grid.
+        // Attach the explosion to the game grid, and wake anything
+        //   dormant on its squares.
         this.attach();
+        for (int i = 0; i < this.getNumSquares(); ++i) {
+            MapGridSquare sq = this.getSquare(i);
+            for (int j = 0; j < sq.getNumEntities(); ++j) sq.entities.get(j).wake();
+        }
         
     }
     
@@ -76,7 +83,7 @@ public class Explosion extends Entity
             try {
                 File imgfile = new File(filename);
                 if (!imgfile.exists()) throw new Exception();
-                sprites.add(i, ImageIO.read(imgfile));
+                sprites.add(i, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
             }
             catch (Exception e) {
                 System.out.println("Exception while loading Explosion images!");
@@ -88,14 +95,16 @@ public class Explosion extends Entity
     } // end method loadSprites
     
     // Static methods to retrieve a sprite from the sprite list.
-    private static BufferedImage getSprite(int number) {
+    private static int getSprite(int number) {
         return sprites.get(number);
     }
     
     // Non-static method to obtain what the current sprite should be,
     //   based on the player's state, direction facing, and state
     //   counter.
-    public BufferedImage getCurrentSprite() {
+    public int getCurrentSprite() {
+
+        if (!SpriteSets.GAME.ensure(SpriteSets.EXPLOSION)) return SpriteSets.GAME.getPlaceholder();
 
         int number = (24 - stateCounter) / 5;
         return getSprite(number);
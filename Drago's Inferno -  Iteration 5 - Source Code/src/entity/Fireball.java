@@ -4,13 +4,13 @@
  */
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
 
-import javax.imageio.ImageIO;
-
+import drago.AssetLoader;
 import drago.DragoStatics;
+import drago.SpriteAtlas;
+import drago.SpriteSets;
 
 import playfield.Fieldpoint;
 import playfield.Playfield;
@@ -24,10 +24,10 @@ import playfield.Polygon;
  */
 public class Fireball extends Entity
 {
-    private static ArrayList<ArrayList<BufferedImage>>
-        shotSprites = new ArrayList<ArrayList<BufferedImage>>();
-    private static ArrayList<BufferedImage>
-        hitSprites = new ArrayList<BufferedImage>();
+    private static ArrayList<ArrayList<Integer>>
+        shotSprites = new ArrayList<ArrayList<Integer>>();
+    private static ArrayList<Integer>
+        hitSprites = new ArrayList<Integer>();
     
     // Constructor.
     public Fireball(int x, int y, String beginFacing, Playfield pf) {
@@ -95,7 +95,7 @@ public class Fireball extends Entity
         
         for (int i = 0; i < 8; ++i) {
 
-            ArrayList<BufferedImage> nextSequence = new ArrayList<BufferedImage>();
+            ArrayList<Integer> nextSequence = new ArrayList<Integer>();
             
             for (int j = 0; j < 3; ++j) {
                 String direction = null;
@@ -119,7 +119,7 @@ public class Fireball extends Entity
                 try {
                     File imgfile = new File(filename);
                     if (!imgfile.exists()) throw new Exception();
-                    nextSequence.add(j, ImageIO.read(imgfile));
+                    nextSequence.add(j, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
                 }
                 catch (Exception e) {
                     System.out.println("Exception while loading Fireball images!");
@@ -138,7 +138,7 @@ public class Fireball extends Entity
             try {
                 File imgfile = new File(filename);
                 if (!imgfile.exists()) throw new Exception();
-                hitSprites.add(i, ImageIO.read(imgfile));
+                hitSprites.add(i, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
             }
             catch (Exception e) {
                 System.out.println("Exception while loading Fireball images!");
@@ -150,19 +150,21 @@ public class Fireball extends Entity
     } // end method loadSprites
     
     // Static methods to retrieve a sprite from the sprite list.
-    private static BufferedImage getShotSprite(int direction, int number) {
+    private static int getShotSprite(int direction, int number) {
         boolean VERBOSE = false;
         if (VERBOSE) System.out.println("Size of sprite array: " + shotSprites.size());
         return shotSprites.get(direction).get(number);
     }
-    private static BufferedImage getHitSprite(int number) {
+    private static int getHitSprite(int number) {
         return hitSprites.get(number);
     }
     
     // Non-static method to obtain what the current sprite should be,
     //   based on the player's state, direction facing, and state
     //   counter.
-    public BufferedImage getCurrentSprite() {
+    public int getCurrentSprite() {
+
+        if (!SpriteSets.GAME.ensure(SpriteSets.FIREBALL)) return SpriteSets.GAME.getPlaceholder();
 
         if (this.getState() == Entity.ST_PLAYER_FIREBALL) {
             int number = 0;
@@ -4,9 +4,10 @@
  */
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
+import drago.SpriteSets;
+
 import playfield.Fieldpoint;
 import playfield.Polygon;
 import playfield.Playfield;
@@ -33,10 +34,8 @@ import playfield.Playfield;
 public class Player extends Walker {
 
 	// The player's sprite set.
-    protected static ArrayList<ArrayList<ArrayList<BufferedImage>>>
-            walkingSprites = new ArrayList<ArrayList<ArrayList<BufferedImage>>>();
-    private static ArrayList<ArrayList<ArrayList<ArrayList<BufferedImage>>>>
-            damageSprites = new ArrayList<ArrayList<ArrayList<ArrayList<BufferedImage>>>>();
+    protected static ArrayList<ArrayList<ArrayList<Integer>>>
+            walkingSprites = new ArrayList<ArrayList<ArrayList<Integer>>>();
 
     // The player's constructor.
 	public Player(int x, int y, String beginFacing, Playfield pf) {
@@ -74,54 +73,11 @@ public class Player extends Walker {
         Walker.loadSprites("PLAYER", walkingSprites);
     }
     
-    // Derived sprites of a 'white-or-black' nature, used to flicker and
-    //   signify that the player has just taken damage. Not used yet.
-    //   (Maybe move the method to 'Walker' or another superclass?)
-    public static void loadDamageSprites() {
-        ArrayList<BufferedImage> nextSequence;
-        ArrayList<ArrayList<BufferedImage>> nextSet;
-        ArrayList<ArrayList<ArrayList<BufferedImage>>> nextColor;
-        BufferedImage transformedSprite = null;
-        BufferedImage normalSprite = null;
-        for (int color = 0; color < 2; ++color) {
-            nextColor = new ArrayList<ArrayList<ArrayList<BufferedImage>>>();
-            for (int set = 0; set < 2; ++set) {
-                nextSet = new ArrayList<ArrayList<BufferedImage>>();
-                for (int direction = 0; direction < 8; ++direction) {
-                    int numInSet = (set == 0) ? 1 : 4;
-                    nextSequence = new ArrayList<BufferedImage>();
-                    for (int number = 0; number < numInSet; ++number) {
-                        normalSprite = walkingSprites.get(set).get(direction).get(number);
-                        transformedSprite = new BufferedImage(
-                                normalSprite.getWidth(),
-                                normalSprite.getHeight(),
-                                BufferedImage.TYPE_INT_ARGB);
-                        for (int x = 0; x < transformedSprite.getWidth(); ++x) {
-                            for (int y = 0; y < transformedSprite.getHeight(); ++y) {
-                                int rgbvalue = normalSprite.getRGB(x, y);
-                                int blue  = (rgbvalue       & 255);
-                                int green = ((rgbvalue>>8)  & 255);
-                                int red   = ((rgbvalue>>16) & 255);
-                                int alpha = ((rgbvalue>>24) & 255);
-                                int white = 255 + (255<<8) + (255<<16); 
-                                if (red != 0 || green != 0 || blue != 0)
-                                    transformedSprite.setRGB(x, y, (alpha<<24) + (color*white));
-                            }
-                        }
-                        nextSequence.add(number, transformedSprite);
-                    }
-                    nextSet.add(direction, nextSequence);
-                }
-                nextColor.add(set, nextSet);
-            }
-            damageSprites.add(color, nextColor);
-        }
-    }               
-    
-    private static BufferedImage getSprite(int set, int direction, int number) {
+    private static int getSprite(int set, int direction, int number) {
         return walkingSprites.get(set).get(direction).get(number);
     }
-    public BufferedImage getCurrentSprite() {
+    public int getCurrentSprite() {
+        if (!SpriteSets.GAME.ensure(SpriteSets.PLAYER)) return SpriteSets.GAME.getPlaceholder();
         int set = 0;
         int n = 0;
         int sc = this.getStateCounter();
@@ -5,9 +5,11 @@
 package entity;
 
 import java.util.ArrayList;
-import java.awt.image.BufferedImage;
 import java.io.File;
-import javax.imageio.ImageIO;
+
+import drago.AssetLoader;
+import drago.SpriteAtlas;
+import drago.SpriteSets;
 
 import playfield.Playfield;
 import playfield.Fieldpoint;
@@ -22,7 +24,7 @@ import playfield.Polygon;
 public class Stone extends Entity {
 	
 	// Stone object's sprite list.
-	private static ArrayList<BufferedImage> sprites = new ArrayList<BufferedImage>();
+	private static ArrayList<Integer> sprites = new ArrayList<Integer>();
 
 	// Constructor.
 	public Stone(int x, int y, String beginFacing, Playfield pf) {
@@ -51,7 +53,7 @@ public class Stone extends Entity {
             String filename = "img\\STONE.gif";
             File imgfile = new File(filename);
             if (!imgfile.exists()) throw new Exception();
-            sprites.add(0, ImageIO.read(imgfile));
+            sprites.add(0, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
         }
         catch (Exception e) {
             System.out.println("Exception while loading Stone sprites!");
@@ -59,7 +61,10 @@ public class Stone extends Entity {
         }
         
     }
-    public BufferedImage getCurrentSprite() { return sprites.get(0); }
+    public int getCurrentSprite() {
+        if (!SpriteSets.GAME.ensure(SpriteSets.STONE)) return SpriteSets.GAME.getPlaceholder();
+        return sprites.get(0);
+    }
 	
 	// Stone's state counter.
 	public void tickStateCounter() {
@@ -67,7 +72,8 @@ public class Stone extends Entity {
 		--stateCounter;
 	}
 
-	// Stone's act method -- nothing yet.
-    public void act() {}
+	// Stone's act method -- nothing yet, so it sleeps until something
+	//   happens to it.
+    public void act() { this.sleep(); }
 
 } // end class Stone
@@ -4,12 +4,13 @@
  */
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
-import javax.imageio.ImageIO;
 
+import drago.AssetLoader;
 import drago.DragoStatics;
+import drago.SpriteAtlas;
+import drago.SpriteSets;
 
 import playfield.MapGridSquare;
 import playfield.PortalSquare;
@@ -25,7 +26,7 @@ import playfield.Polygon;
  */
 public class Tree extends Entity{
 	
-	private static ArrayList<BufferedImage> sprites = new ArrayList<BufferedImage>();
+	private static ArrayList<Integer> sprites = new ArrayList<Integer>();
 
 	// Tree's constructor.
 	public Tree(int x, int y, String beginFacing, Playfield pf) {
@@ -52,24 +53,25 @@ public class Tree extends Entity{
             String filename = "img\\FLAMMABLE_TREE.gif";
             File imgfile = new File(filename);
             if (!imgfile.exists()) throw new Exception();
-            sprites.add(0, ImageIO.read(imgfile));
+            sprites.add(0, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
         }
         catch (Exception e) {
             System.out.println("Exception while loading Tree sprites!");
             System.exit(1);
         }
     }
-    public BufferedImage getCurrentSprite() {
+    public int getCurrentSprite() {
+        if (!SpriteSets.GAME.ensure(SpriteSets.TREE)) return SpriteSets.GAME.getPlaceholder();
         return sprites.get(0);
     }
     
-	// Overloaded disappear method checks other squares for trees
-	//   or stones; if none are found on that side, a dynamic portal
-	//   is opened. We may end up moving this to a 'PathObstacle'
+	// Overloaded vanish method (see Entity.disappear) checks other squares
+	//   for trees or stones; if none are found on that side, a dynamic
+	//   portal is opened. We may end up moving this to a 'PathObstacle'
     //   class so that the code can be shared with the 'Stone' class.
     //   For now, we will keep it in the 'Tree' class.
 	@Override
-	public void disappear() {
+	protected void vanish() {
 	    
 	    boolean VERBOSE = false;
 	    
@@ -151,9 +153,9 @@ public class Tree extends Entity{
 	    } // end for (by sides of given square)
 	    
 	    // Now destroy the tree.
-	    super.disappear();
+	    super.vanish();
 	    
-	} // end method disappear	                
+	} // end method vanish	                
 	
 	// Tree's state counter.
 	public void tickStateCounter() {
@@ -161,8 +163,8 @@ public class Tree extends Entity{
 		--stateCounter;
 	}
 	
-    // Tree's action loop -- nothing yet. (If there were wind
-	//   blowing, however...)
-    public void act() {}
+    // Tree's action loop -- nothing yet, so it sleeps until something
+	//   happens to it. (If there were wind blowing, however...)
+    public void act() { this.sleep(); }
     
 } // end class Tree
@@ -4,12 +4,13 @@
  */
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
-import javax.imageio.ImageIO;
 import javax.swing.JOptionPane;
 
+import drago.AssetLoader;
+import drago.SpriteAtlas;
+
 import playfield.Playfield;
 
 /**
@@ -35,7 +36,7 @@ abstract public class Walker extends Entity
     // Load the walker's sprites: all these entities have the same sprite
     //   file-naming pattern, so the method to load them is the same.
     public static void loadSprites(String entname,
-            ArrayList<ArrayList<ArrayList<BufferedImage>>> spriteArray) {
+            ArrayList<ArrayList<ArrayList<Integer>>> spriteArray) {
         
         try {
             
@@ -43,7 +44,7 @@ abstract public class Walker extends Entity
             for (int i = 0; i < 2; ++i) {
                 
                 // Create an array of sprite sequences for this set (currently STANDING-WALKING).
-                ArrayList<ArrayList<BufferedImage>> nextSet = new ArrayList<ArrayList<BufferedImage>>();
+                ArrayList<ArrayList<Integer>> nextSet = new ArrayList<ArrayList<Integer>>();
                 
                 // Get the string representing the set.
                 String set = null;
@@ -58,7 +59,7 @@ abstract public class Walker extends Entity
                 for (int j = 0; j < 8; ++j) {
                     
                     // Create a sequence of sprites for this direction (e.g., 1-2-3-4 for walking).
-                    ArrayList<BufferedImage> nextSequence = new ArrayList<BufferedImage>();
+                    ArrayList<Integer> nextSequence = new ArrayList<Integer>();
                     
                     // Get the string representing the direction.
                     String direction = null;
@@ -83,7 +84,7 @@ abstract public class Walker extends Entity
                         String filename = "img\\" + entname + "_STANDING_" + direction + ".gif";
                         File imgfile = new File(filename);
                         if (!imgfile.exists()) throw new Exception();
-                        nextSequence.add(0, ImageIO.read(imgfile));
+                        nextSequence.add(0, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
                         
                     }
                     
@@ -106,7 +107,7 @@ abstract public class Walker extends Entity
                                     + direction + "_" + number + ".gif";
                             File imgfile = new File(filename);
                             if (!imgfile.exists()) throw new Exception();
-                            nextSequence.add(k, ImageIO.read(imgfile));
+                            nextSequence.add(k, SpriteAtlas.GAME.add(AssetLoader.read(imgfile)));
                             
                         } // end for (by animation frame)
                     } // end if (standing or walking)
@@ -1,9 +1,10 @@
 package entity;
 
-import java.awt.image.BufferedImage;
 import java.io.File;
 
-import javax.imageio.ImageIO;
+import drago.AssetLoader;
+import drago.SpriteAtlas;
+import drago.SpriteSets;
 
 import playfield.Fieldpoint;
 import playfield.Playfield;
@@ -11,7 +12,7 @@ import playfield.Polygon;
 
 public class YellowEgg extends Entity
 {
-    private static BufferedImage sprite;
+    private static int sprite;
     
     // Egg constructor.
     public YellowEgg(int x, int y, String beginFacing, Playfield pf) {
@@ -36,7 +37,7 @@ public class YellowEgg extends Entity
         try {
             File imgfile = new File(filename);
             if (!imgfile.exists()) throw new Exception();
-            sprite = ImageIO.read(imgfile);
+            sprite = SpriteAtlas.GAME.add(AssetLoader.read(imgfile));
         }
         catch (Exception e) {
             System.out.println("Exception while loading Egg image!");
@@ -44,8 +45,12 @@ public class YellowEgg extends Entity
             System.exit(1);
         }
     }
-    private static BufferedImage getSprite() { return sprite; }
-    public BufferedImage getCurrentSprite() { return sprite; }
-    public void act() {}
+    private static int getSprite() { return sprite; }
+    public int getCurrentSprite() {
+        if (!SpriteSets.GAME.ensure(SpriteSets.YELLOW_EGG)) return SpriteSets.GAME.getPlaceholder();
+        return sprite;
+    }
+    // An egg has nothing to do until taken, so it sleeps.
+    public void act() { this.sleep(); }
 
 }
@@ -6,8 +6,6 @@ package playfield;
 
 import java.util.ArrayList;
 
-import drago.DragoStatics;
-
 // *Liz*:
 //
 //   Here is the AStarNode class, which Portal now extends. Implementation
@@ -25,9 +23,8 @@ import drago.DragoStatics;
 //
 abstract public class AStarNode
 {
-    public AStarNode pathParent;
-    public int costFromStart;
-    public int estimatedCostToGoal;
+    // The costs and parent of a node during a search are kept by the
+    //   search itself (see AStarSearch.NodeState).
     private ArrayList<AStarNode> neighbors;
     
     // Abstract constructor.
@@ -35,16 +32,6 @@ abstract public class AStarNode
         neighbors = new ArrayList<AStarNode>();
     }
     
-    public int getCost() {
-        return costFromStart + estimatedCostToGoal;
-    }
-    
-    public int compareTo(AStarNode other) {
-        int otherValue = other.getCost();
-        int thisValue = this.getCost();
-        return DragoStatics.sign(thisValue - otherValue);
-    }
-    
     public abstract int getCost(AStarNode node);
     public abstract int getEstimatedCost(AStarNode node);
     
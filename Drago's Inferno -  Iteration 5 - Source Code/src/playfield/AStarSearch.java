@@ -18,16 +18,50 @@ public class AStarSearch {
     // Node to hold the root of the BSP tree.
     BSPNode tree;
 
+    // The state of a node during one search. Kept here rather than in
+    //   the nodes themselves, so that several searches may run at once
+    //   (see drago.TickExecutor).
+    static class NodeState {
+        AStarNode pathParent;
+        int costFromStart;
+        int estimatedCostToGoal;
+        boolean open;
+        boolean closed;
+        int getCost() { return costFromStart + estimatedCostToGoal; }
+    }
+
+    // The states of the nodes reached by the current search.
+    private IdentityHashMap<AStarNode, NodeState> states;
+
+    // Get the state of a node, creating it if not yet reached.
+    private NodeState state(AStarNode node) {
+        NodeState st = states.get(node);
+        if (st == null) {
+            st = new NodeState();
+            states.put(node, st);
+        }
+        return st;
+    }
+
     // Priority type list to sort List into shortest distance order.
     public static class PriorityList extends LinkedList<AStarNode> {
 
+        private final IdentityHashMap<AStarNode, NodeState> states;
+
+        PriorityList(IdentityHashMap<AStarNode, NodeState> states) {
+            this.states = states;
+        }
+
         // Compare cost to other nodes in list and add in order (from shortest to longest).
         // Note: I had to make this boolean because the signature matched a pre-existing
         //   Java library function. Not sure if this was an error on Brackeen's part. -Scott
         public boolean add(AStarNode node) {
-            for (int i = 0; i < size(); ++i) {
-                if (node.compareTo(get(i)) <= 0) {
-                    add(i, node);
+            int cost = states.get(node).getCost();
+            ListIterator<AStarNode> it = listIterator();
+            while (it.hasNext()) {
+                if (cost <= states.get(it.next()).getCost()) {
+                    it.previous();
+                    it.add(node);
                     return true;
                 }
             }
@@ -45,9 +79,9 @@ public class AStarSearch {
         LinkedList<AStarNode> path = new LinkedList<AStarNode>();
 
         // Add portals to the list in reverse order until the first portal is reached.
-        while (node.pathParent != null) {
+        while (states.get(node).pathParent != null) {
             path.addFirst(node);
-            node = node.pathParent;
+            node = states.get(node).pathParent;
         }
 
         // Return the finished path.
@@ -97,73 +131,70 @@ public class AStarSearch {
             return path;
         }
         
-        // Temporarily attach to A* graph.
-        ArrayList<AStarNode> startNeighbors = new ArrayList<AStarNode>();
-        ArrayList<AStarNode> goalNeighbors = new ArrayList<AStarNode>();
+        // Attach the start and goal nodes to the A* graph. The portals
+        //   they connect to are not changed: the edges from those
+        //   portals back to the start and goal nodes are only virtual,
+        //   followed after the portal's own neighbors (see below).
+        IdentityHashMap<AStarNode, Boolean> startNeighbors = new IdentityHashMap<AStarNode, Boolean>();
+        IdentityHashMap<AStarNode, Boolean> goalNeighbors = new IdentityHashMap<AStarNode, Boolean>();
         for (int i = 0; i < 2; ++i) {
             BSPLeaf leaf = (i == 0) ? start : goal;
             AStarNode node = (i == 0) ? startNode : goalNode;
-            ArrayList<AStarNode> neighbors = (i == 0) ? startNeighbors : goalNeighbors;
+            IdentityHashMap<AStarNode, Boolean> neighbors = (i == 0) ? startNeighbors : goalNeighbors;
             int nodex = (i == 0) ? startx : goalx;
             int nodey = (i == 0) ? starty : goaly;
             if (leaf.getProperty() == LeafProperty.TREE_STONE_POLY) {
                 PortalSquare ps = (PortalSquare)pf.gameGrid[nodex >> 5][nodey >> 5]; // Could not be cast to PortalSquare: why?
                 for (int side = 0; side < 4; ++side) {
                     if (ps.getPortal(side) != null) { 
-                        neighbors.add(ps.getPortal(side));
-                        ps.getPortal(side).addNeighbor(node);
+                        node.addNeighbor(ps.getPortal(side));
+                        neighbors.put(ps.getPortal(side), Boolean.TRUE);
                     }
                 }
             }
             else {
                 for (int j = 0; j < leaf.getNumPortals(); ++j) {
-                    neighbors.add(leaf.getPortal(j));
+                    node.addNeighbor(leaf.getPortal(j));
+                    neighbors.put(leaf.getPortal(j), Boolean.TRUE);
                 }
             }
-            for (int j = 0; j < neighbors.size(); ++j) {
-                node.addNeighbor(neighbors.get(j));
-                neighbors.get(j).addNeighbor(node);
-            }
         }
         
         // Create variables.
-        PriorityList openList = new PriorityList();
-        LinkedList<AStarNode> closedList = new LinkedList<AStarNode>();
-        //LinkedList<AStarNode> traveledPath;
+        states = new IdentityHashMap<AStarNode, NodeState>();
+        PriorityList openList = new PriorityList(states);
+        ArrayList<AStarNode> neighbors = new ArrayList<AStarNode>();
         
-        startNode.costFromStart = 0;
-        startNode.estimatedCostToGoal = startNode.getEstimatedCost(goalNode);
-        startNode.pathParent = null;
+        NodeState startState = state(startNode);
+        startState.costFromStart = 0;
+        startState.estimatedCostToGoal = startNode.getEstimatedCost(goalNode);
+        startState.pathParent = null;
+        startState.open = true;
         openList.add(startNode);
 
-        int nodex = 0;
-        int nodey = 0;
         int cycles = 0;
 
         boolean found = false;
         while (!openList.isEmpty()) {
             
             AStarNode node = (AStarNode)openList.removeFirst();
+            NodeState nodeState = states.get(node);
+            nodeState.open = false;
 
-            //System.out.print("Node moving from (" + nodex + ", " + nodey + ")");
-            if (node instanceof Portal) {
-                Portal portal = (Portal)node;
-                nodex = portal.getMidpoint().x;
-                nodey = portal.getMidpoint().y;
-            }
-            else if (node instanceof LeafNode) {
-                LeafNode leafnode = (LeafNode)node;
-                nodex = leafnode.location.x;
-                nodey = leafnode.location.y;
-            }
-            //System.out.println(" to (" + nodex + ", " + nodey + ")");
-            
             if (node == goalNode) {
                 found = true;
                 break;
             }
             
-            ArrayList<AStarNode> neighbors = node.getNeighbors();
+            // Get the neighbors of the node, including the virtual
+            //   edges to the start and goal nodes.
+            neighbors.clear();
+            neighbors.addAll(node.getNeighbors());
+            if (startNeighbors.containsKey(node) && !neighbors.contains(startNode))
+                neighbors.add(startNode);
+            if (goalNeighbors.containsKey(node) && !neighbors.contains(goalNode))
+                neighbors.add(goalNode);
+            
             for (int i = 0; i < neighbors.size(); ++i) {
                 
                 // Get the neighbor node.
@@ -176,22 +207,24 @@ public class AStarSearch {
                 }
                 
                 // Get open/closed status of neighbor found.
-                boolean isOpen = openList.contains(neighborNode);
-                boolean isClosed = closedList.contains(neighborNode);
-                int costFromStart = node.costFromStart + node.getCost(neighborNode);
+                NodeState neighborState = state(neighborNode);
+                boolean isOpen = neighborState.open;
+                boolean isClosed = neighborState.closed;
+                int costFromStart = nodeState.costFromStart + node.getCost(neighborNode);
                 
                 // Check if the neighbor node has not been traversed or
                 //   if a shorter path to this neighbor node is found.
                 if (    (!isOpen && !isClosed)
-                     || (costFromStart < neighborNode.costFromStart) )
+                     || (costFromStart < neighborState.costFromStart) )
                 {
-                    neighborNode.pathParent = node;
-                    neighborNode.costFromStart = costFromStart;
-                    neighborNode.estimatedCostToGoal = neighborNode.getEstimatedCost(goalNode);
+                    neighborState.pathParent = node;
+                    neighborState.costFromStart = costFromStart;
+                    neighborState.estimatedCostToGoal = neighborNode.getEstimatedCost(goalNode);
                     if (isClosed) {
-                        closedList.remove(neighborNode);
+                        neighborState.closed = false;
                     }
                     if (!isOpen) {
+                        neighborState.open = true;
                         openList.add(neighborNode);
                     }
                     
@@ -199,7 +232,7 @@ public class AStarSearch {
             } // end for (by neighbor of current node)
             
             // Add node to 'closed' list.
-            closedList.add(node);
+            nodeState.closed = true;
             
             // Increment cycles. If too many, abort A* search.
             ++cycles;
@@ -207,23 +240,14 @@ public class AStarSearch {
         
         } // end while (A* search loop)
         
-        // Delete temporary start and goal nodes from A* graph.
-        for (int i = 0; i < startNeighbors.size(); ++i) {
-            startNeighbors.get(i).removeNeighbor(startNode);
-            startNode.removeNeighbor(startNeighbors.get(i));
-        }
-        for (int i = 0; i < goalNeighbors.size(); ++i) {
-            goalNeighbors.get(i).removeNeighbor(goalNode);
-            goalNode.removeNeighbor(goalNeighbors.get(i));
-        }
-        
         // Return path if found; otherwise return null.
+        LinkedList<AStarNode> path = null;
         if (found) {
             //System.out.println("Path found; reconstructing.");
-            return constructPath(goalNode);
-        } else {
-            return null;
+            path = constructPath(goalNode);
         }
+        states = null;
+        return path;
         
     } // end method findPath
         
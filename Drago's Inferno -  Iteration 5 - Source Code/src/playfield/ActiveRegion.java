@@ -0,0 +1,249 @@
+/*
+ * ActiveRegion.java (v1.0)
+ * 10/18/2026
+ */
+package playfield;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import drago.DragoStatics;
+
+import entity.Entity;
+import entity.Explosion;
+import entity.Fireball;
+
+/**
+ * The "active region" of a playfield, i.e., the rectangle around the
+ * player within which entities move and act, together with the list
+ * of entities that are active.
+ *
+ * Membership is kept in a list indexed by a hash map from each entity
+ * to its place in the list, so adding, removing and testing an entity
+ * take constant time (a removed entity's place is taken by the last
+ * one in the list).
+ *
+ * The list is kept up to date by events rather than by sweeping the
+ * region every tick:
+ *   - When the region moves ('moveTo'), only the strips of grid squares
+ *     it newly covers are scanned for entities entering, and only the
+ *     strips it uncovers for active entities leaving.
+ *   - When an active entity is attached to new grid squares (see
+ *     Entity.attach), it is checked for having left the region.
+ * Entities that leave are only removed when 'commit' is called, so
+ * that the list does not change under the action loop.
+ *
+ * Fireballs and explosions never leave the region by distance, as it
+ * would be unrealistic for a projectile to freeze in mid-air.
+ *
+ * Dormant entities (see Entity.sleep) are members of the region, but
+ * are kept off the list, so that a forest costs nothing per tick until
+ * something happens to one of its trees.
+ *
+ */
+public class ActiveRegion
+{
+    // Number of extra grid squares scanned beyond each uncovered
+    //   strip, since an entity's position need not lie in the
+    //   squares its bounding polygon overlaps.
+    private static final int MARGIN = 3;
+
+    private final Playfield pf;
+
+    // Half the dimensions of the region.
+    private final int halfWidth;
+    private final int halfHeight;
+
+    // The center of the region (-1 until first placed).
+    private int centerx = -1;
+    private int centery = -1;
+    private boolean placed = false;
+
+    // The active entities that are awake, and the index of each
+    //   within the list (DORMANT for those asleep).
+    private static final Integer DORMANT = Integer.valueOf(-1);
+    private final ArrayList<Entity> members = new ArrayList<Entity>();
+    private final IdentityHashMap<Entity, Integer> index = new IdentityHashMap<Entity, Integer>();
+    private int numDormant = 0;
+
+    // Entities that may have left the region, to be checked on commit.
+    private final ArrayList<Entity> leaving = new ArrayList<Entity>();
+
+    // Constructor.
+    public ActiveRegion(Playfield pf, int width, int height) {
+        this.pf = pf;
+        this.halfWidth = width >> 1;
+        this.halfHeight = height >> 1;
+    }
+
+    public int size() { return members.size(); }
+    public Entity get(int i) { return members.get(i); }
+    public boolean contains(Entity t) { return index.containsKey(t); }
+    public int numDormant() { return numDormant; }
+
+    // Add an entity to the region, if not already there.
+    public void add(Entity t) {
+        if (index.containsKey(t)) return;
+        if (t.isDormant()) {
+            index.put(t, DORMANT);
+            ++numDormant;
+        }
+        else {
+            index.put(t, members.size());
+            members.add(t);
+        }
+    }
+
+    // Remove an entity from the region, if there.
+    public void remove(Entity t) {
+        Integer i = index.remove(t);
+        if (i == null) return;
+        if (i < 0) --numDormant;
+        else unlist(t, i);
+    }
+
+    // Take a member that has gone to sleep off the list (if it is
+    //   still asleep), or put one that has woken back on it.
+    public void sleep(Entity t) {
+        Integer i = index.get(t);
+        if (i == null || i < 0 || !t.isDormant()) return;
+        unlist(t, i);
+        index.put(t, DORMANT);
+        ++numDormant;
+    }
+    public void wake(Entity t) {
+        Integer i = index.get(t);
+        if (i == null || i >= 0 || t.isDormant()) return;
+        index.put(t, members.size());
+        members.add(t);
+        --numDormant;
+    }
+
+    // Take the entity at the given place off the list, putting the
+    //   last one in its place.
+    private void unlist(Entity t, int i) {
+        Entity last = members.remove(members.size() - 1);
+        if (last != t) {
+            members.set(i, last);
+            index.put(last, i);
+        }
+    }
+
+    // Whether the given entity lies outside the region.
+    private boolean isOutside(Entity t) {
+        if (t instanceof Fireball) return false;
+        if (t instanceof Explosion) return false;
+        return    (Math.abs(centerx - t.x()) > halfWidth)
+               || (Math.abs(centery - t.y()) > halfHeight);
+    }
+
+    // Called when an entity is attached to new grid squares.
+    public void onEntityMoved(Entity t) {
+        if (!placed) return;
+        if (isOutside(t) && index.containsKey(t)) leaving.add(t);
+    }
+
+    // Remove the entities that have left the region since the
+    //   last commit (and are still outside it).
+    public void commit() {
+        for (int i = 0; i < leaving.size(); ++i) {
+            Entity t = leaving.get(i);
+            if (isOutside(t)) remove(t);
+        }
+        leaving.clear();
+    }
+
+    // Center the region on the given point, activating the entities
+    //   it now covers and marking those it no longer covers as
+    //   leaving. The first call (or a jump of more than the region's
+    //   size) scans the whole region.
+    public void moveTo(int x, int y) {
+        int dx = x - centerx;
+        int dy = y - centery;
+        if (!placed || Math.abs(dx) > halfWidth || Math.abs(dy) > halfHeight) {
+            centerx = x;
+            centery = y;
+            placed = true;
+            for (int i = 0; i < members.size(); ++i) {
+                if (isOutside(members.get(i))) leaving.add(members.get(i));
+            }
+            scanEntering(x - halfWidth, x + halfWidth, y - halfHeight, y + halfHeight);
+            return;
+        }
+        if (dx == 0 && dy == 0) return;
+
+        // Uncovered strips, scanned over the old and new extent of
+        //   the other axis.
+        if (dx != 0) {
+            int edge = centerx - DragoStatics.sign(dx)*halfWidth;
+            scanLeaving(Math.min(edge, edge + dx), Math.max(edge, edge + dx),
+                        Math.min(centery, y) - halfHeight, Math.max(centery, y) + halfHeight);
+        }
+        if (dy != 0) {
+            int edge = centery - DragoStatics.sign(dy)*halfHeight;
+            scanLeaving(Math.min(centerx, x) - halfWidth, Math.max(centerx, x) + halfWidth,
+                        Math.min(edge, edge + dy), Math.max(edge, edge + dy));
+        }
+        centerx = x;
+        centery = y;
+
+        // Newly covered strips.
+        if (dx != 0) {
+            int edge = x + DragoStatics.sign(dx)*halfWidth;
+            scanEntering(Math.min(edge, edge - dx), Math.max(edge, edge - dx),
+                         y - halfHeight, y + halfHeight);
+        }
+        if (dy != 0) {
+            int edge = y + DragoStatics.sign(dy)*halfHeight;
+            scanEntering(x - halfWidth, x + halfWidth,
+                         Math.min(edge, edge - dy), Math.max(edge, edge - dy));
+        }
+
+    } // end method moveTo
+
+    // Activate every entity overlapping the squares of the given
+    //   rectangle (in field coordinates).
+    private void scanEntering(int x1, int x2, int y1, int y2) {
+        if (!overlapsGrid(x1 >> 5, x2 >> 5, y1 >> 5, y2 >> 5)) return;
+        int sqx1 = pf.clipWidth(x1 >> 5);
+        int sqx2 = pf.clipWidth(x2 >> 5);
+        int sqy1 = pf.clipHeight(y1 >> 5);
+        int sqy2 = pf.clipHeight(y2 >> 5);
+        for (int sqx = sqx1; sqx <= sqx2; ++sqx) {
+            for (int sqy = sqy1; sqy <= sqy2; ++sqy) {
+                ArrayList<Entity> list = pf.gameGrid[sqx][sqy].entities;
+                for (int i = 0; i < list.size(); ++i) add(list.get(i));
+            }
+        }
+    }
+
+    // Mark as leaving every active entity overlapping the squares of
+    //   the given rectangle (plus the margin) that is now outside.
+    private void scanLeaving(int x1, int x2, int y1, int y2) {
+        x1 = (x1 >> 5) - MARGIN;
+        x2 = (x2 >> 5) + MARGIN;
+        y1 = (y1 >> 5) - MARGIN;
+        y2 = (y2 >> 5) + MARGIN;
+        if (!overlapsGrid(x1, x2, y1, y2)) return;
+        int sqx1 = pf.clipWidth(x1);
+        int sqx2 = pf.clipWidth(x2);
+        int sqy1 = pf.clipHeight(y1);
+        int sqy2 = pf.clipHeight(y2);
+        for (int sqx = sqx1; sqx <= sqx2; ++sqx) {
+            for (int sqy = sqy1; sqy <= sqy2; ++sqy) {
+                ArrayList<Entity> list = pf.gameGrid[sqx][sqy].entities;
+                for (int i = 0; i < list.size(); ++i) {
+                    Entity t = list.get(i);
+                    if (index.containsKey(t) && isOutside(t)) leaving.add(t);
+                }
+            }
+        }
+    }
+
+    // Whether any of the given squares lie within the game grid.
+    private boolean overlapsGrid(int sqx1, int sqx2, int sqy1, int sqy2) {
+        return    (sqx2 >= 0) && (sqx1 <= pf.gridWidth() - 1)
+               && (sqy2 >= 0) && (sqy1 <= pf.gridHeight() - 1);
+    }
+
+} // end class ActiveRegion
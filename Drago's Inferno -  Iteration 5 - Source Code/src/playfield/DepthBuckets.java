@@ -0,0 +1,72 @@
+/*
+ * DepthBuckets.java (v1.0)
+ * 10/18/2026
+ */
+package playfield;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import entity.Entity;
+
+/**
+ * The entities of a playfield in painter's order: one bucket for each
+ * pixel row of the playfield, holding the entities whose lowest point
+ * (the bottom of the bounding box, see Entity.bboxy) lies on that row.
+ * A grid row's entities are drawn back to front by walking its 32
+ * buckets from the top one down.
+ *
+ * The buckets are kept up to date as entities are attached to the
+ * grid (see Playfield.onEntityMoved), and an entity only changes
+ * bucket when its lowest point moves to another row, so drawing a
+ * frame needs no sorting and no searching.
+ *
+ * Each entity's bucket is held in a hash map, as in ActiveRegion.
+ * Entities beyond the top or bottom of the playfield are kept in the
+ * nearest bucket.
+ *
+ */
+public class DepthBuckets
+{
+    private final ArrayList<ArrayList<Entity>> buckets;
+
+    // The bucket each listed entity is in.
+    private final IdentityHashMap<Entity, Integer> bucketOf =
+            new IdentityHashMap<Entity, Integer>();
+
+    // Constructor. 'height' is the height of the playfield in pixels.
+    public DepthBuckets(int height) {
+        buckets = new ArrayList<ArrayList<Entity>>(height);
+        for (int i = 0; i < height; ++i) {
+            buckets.add(new ArrayList<Entity>(0));
+        }
+    }
+
+    // Get the entities whose lowest point lies on the given pixel row
+    //   (in the order they arrived there).
+    public ArrayList<Entity> get(int y) {
+        return buckets.get(y);
+    }
+
+    public int size() { return bucketOf.size(); }
+
+    // Put an entity in the bucket for its lowest point, if not there
+    //   already.
+    public void update(Entity t) {
+        int y = Math.max(0, Math.min(t.bboxy(), buckets.size() - 1));
+        Integer old = bucketOf.get(t);
+        if (old != null) {
+            if (old.intValue() == y) return;
+            buckets.get(old.intValue()).remove(t);
+        }
+        buckets.get(y).add(t);
+        bucketOf.put(t, y);
+    }
+
+    // Take an entity out of its bucket.
+    public void remove(Entity t) {
+        Integer old = bucketOf.remove(t);
+        if (old != null) buckets.get(old.intValue()).remove(t);
+    }
+
+} // end class DepthBuckets
@@ -0,0 +1,34 @@
+/*
+ * GridSelection.java (v1.0)
+ * 10/18/2026
+ */
+package playfield;
+
+/**
+ * The grid squares overlapped by a polygon, as found by
+ * Playfield.makeGridSelection. Index 0 of each array holds the
+ * selection of the whole polygon; index i holds that of the polygon's
+ * i-th line. For each selection, the rows run from 'lowestRow' to
+ * 'highestRow', and each row from column 'left' to column 'right'.
+ *
+ * Each thread has its own selection (see Playfield.getGridSelection),
+ * so that entities may act on several threads at once.
+ *
+ */
+public class GridSelection
+{
+    public final int left[][];
+    public final int right[][];
+    public final int lowestRow[];
+    public final int highestRow[];
+
+    // Constructor, for polygons of up to 'maxLines' lines on a grid
+    //   of the given height.
+    public GridSelection(int maxLines, int gridHeight) {
+        left = new int[maxLines][gridHeight];
+        right = new int[maxLines][gridHeight];
+        lowestRow = new int[maxLines];
+        highestRow = new int[maxLines];
+    }
+
+} // end class GridSelection
@@ -15,6 +15,8 @@ import java.io.FileNotFoundException;
 import java.util.Scanner;
 import java.util.Vector;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import drago.DragoStatics;
 
@@ -38,28 +40,117 @@ public class Playfield {
 	private ArrayList<Entity> entities = new ArrayList<Entity>();
 	public Entity getEntity(int i) { return entities.get(i); }
 	public void addEntity(Entity t) {
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer != null) { buffer.record(EffectBuffer.FX_ADD_ENTITY, t); return; }
 	    if (!entities.contains(t))
 	        entities.add(t);
 	}
-	public void removeEntity(Entity t) { entities.remove(t); }
+	public void removeEntity(Entity t) {
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer != null) { buffer.record(EffectBuffer.FX_REMOVE_ENTITY, t); return; }
+	    entities.remove(t);
+	    depth.remove(t);
+	}
 	public int numEntities() { return entities.size(); }
 	    
 	// Active entities (i.e., the subset of entities above that
 	//   will be included in the action loop -- all the rest will
-	//   just stay frozen until the player gets close).
-	private ArrayList<Entity> activeEntities = new ArrayList<Entity>();
-	public Entity getActiveEntity(int i) { return activeEntities.get(i); }
+	//   just stay frozen until the player gets close). Kept by the
+	//   active region, which must be created before use.
+	// Changes made while an effect buffer is recording (see
+	//   EffectBuffer) are made when the buffer is committed.
+	private ActiveRegion region;
+	public void createActiveRegion(int width, int height) {
+	    region = new ActiveRegion(this, width, height);
+	}
+	public ActiveRegion getActiveRegion() { return region; }
+	public Entity getActiveEntity(int i) { return region.get(i); }
 	public void addActiveEntity(Entity t) {
-	    if (!activeEntities.contains(t))
-	        activeEntities.add(t);
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer != null) buffer.record(EffectBuffer.FX_ACTIVATE, t);
+	    else region.add(t);
+	}
+	public void removeActiveEntity(Entity t) {
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer != null) buffer.record(EffectBuffer.FX_DEACTIVATE, t);
+	    else region.remove(t);
+	}
+	public boolean isActive(Entity t) { return region.contains(t); }
+	public int numActiveEntities() { return region.size(); }
+	public int numDormantEntities() { return region.numDormant(); }
+	
+	// Called by an entity when it goes to sleep or wakes (see
+	//   Entity.sleep).
+	public void onEntitySlept(Entity t) {
+	    if (region == null) return;
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer != null) buffer.record(EffectBuffer.FX_SLEEP, t);
+	    else region.sleep(t);
 	}
-	public void removeActiveEntity(Entity t) { activeEntities.remove(t); }
-	public int numActiveEntities() { return activeEntities.size(); }
+	public void onEntityWoken(Entity t) {
+	    if (region == null) return;
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer != null) buffer.record(EffectBuffer.FX_WAKE, t);
+	    else region.wake(t);
+	}
+	
+	// Called by an entity when it is attached to new grid squares.
+	public void onEntityMoved(Entity t) {
+	    EffectBuffer buffer = EffectBuffer.current();
+	    if (buffer != null) { buffer.record(EffectBuffer.FX_MOVED, t); return; }
+	    if (!t.isRemoved()) depth.update(t);
+	    if (region != null) region.onEntityMoved(t);
+	}
+	
+	// The entities in painter's order (see DepthBuckets). Created
+	//   with the grid, before any entity is attached.
+	private DepthBuckets depth;
+	public DepthBuckets getDepthBuckets() { return depth; }
 	
 	// The player, who occupies a special status relative to the
 	//   acting entities surrounding him/her.
 	public Player player;
 	
+	// The types of entity the level places, by their names in the
+	//   level file ('TREE' and 'STONE' for those of the tree and
+	//   stone polygons), in order first placed. Used to load only the
+	//   sprites the level needs (see drago.SpriteSets).
+	private LinkedHashSet<String> entityTypes = new LinkedHashSet<String>();
+	public Set<String> getEntityTypes() { return entityTypes; }
+	
+	// The view (the part of the playfield on screen), and the rates of
+	//   systems within entities' actions (see drago.TickRates): the
+	//   number of ticks between path searches of enemies, and between
+	//   animation steps (1 = every tick). The 'far' and 'off screen'
+	//   rates are the slower ones used under load (see
+	//   drago.FrameGovernor) by distant enemies and entities off
+	//   screen. Set before each tick; only read while entities act.
+	private int viewx1, viewy1, viewx2, viewy2;
+	private int searchTicks = 1;
+	private int farSearchTicks = 1;
+	private int animTicks = 1;
+	private int offscreenAnimTicks = 1;
+	public void setView(int x, int y, int width, int height) {
+	    viewx1 = x;
+	    viewy1 = y;
+	    viewx2 = x + width;
+	    viewy2 = y + height;
+	}
+	public boolean isInView(Entity t, int margin) {
+	    return    (t.x() >= viewx1 - margin) && (t.x() <= viewx2 + margin)
+	           && (t.y() >= viewy1 - margin) && (t.y() <= viewy2 + margin);
+	}
+	public void setDetail(int searchTicks, int farSearchTicks, int animTicks, int offscreenAnimTicks) {
+	    this.searchTicks = searchTicks;
+	    this.farSearchTicks = Math.max(farSearchTicks, searchTicks);
+	    this.animTicks = animTicks;
+	    this.offscreenAnimTicks = Math.max(offscreenAnimTicks, animTicks);
+	}
+	public int getSearchTicks() { return searchTicks; }
+	public int getFarSearchTicks() { return farSearchTicks; }
+	public int getAnimTicks() { return animTicks; }
+	public int getOffscreenAnimTicks() { return offscreenAnimTicks; }
+	
 	// The game grid and the fill grid.
 	// 
 	// *Ryan*:
@@ -87,11 +178,15 @@ public class Playfield {
 
 	// The array for grid selection. This is for the 'makeGridSelection'
 	//   method I introduced last semester.
+	//   Each thread gets its own selection.
 	public final int MAX_POLY_LINES = 20;
-	public int gridSelectionLeft[][];
-	public int gridSelectionRight[][];
-	public int gridSelectionLowestRow[] = new int[MAX_POLY_LINES];
-	public int gridSelectionHighestRow[] = new int[MAX_POLY_LINES];
+	private final ThreadLocal<GridSelection> gridSelection =
+	        new ThreadLocal<GridSelection>() {
+	            protected GridSelection initialValue() {
+	                return new GridSelection(MAX_POLY_LINES, gridHeight);
+	            }
+	        };
+	public GridSelection getGridSelection() { return gridSelection.get(); }
 	
 	// Dimensions of both the game grid and the playfield.
 	private int levelWidth;
@@ -168,18 +263,15 @@ public class Playfield {
 			for (int j = 0; j < gridHeight; ++j)
 				gameGrid[i][j] = new MapGridSquare();
 		
+		// Create the depth buckets for drawing entities.
+		depth = new DepthBuckets(levelHeight);
+		
 		// Create the fill grid for use in filling textures.
 		//   I had to switch from bytes to ints because I ran into
 		//   a conversion problem... not sure how one would deal
 		//   with this in Java.
 		fillGrid = new int[gridWidth][gridHeight];
 
-		// Initialize grid selection for use with method
-		//   'makeGridSelection'. Use grid height to define
-		//   the size of the array.
-		gridSelectionLeft = new int[MAX_POLY_LINES][gridHeight];
-		gridSelectionRight = new int[MAX_POLY_LINES][gridHeight];
-		
 		if (!scanner.next().contains("beginpolys"))
 			error ("loadLevel", "Invalid map file: 'beginpolys' not found");
 
@@ -309,6 +401,7 @@ public class Playfield {
             case "YELLOW_EGG": nextEntity = new YellowEgg(x, y, beginFacing, this); break;
 			default: error("loadLevel", "object name not recognized (" + nextString + ")");
 			}
+			entityTypes.add(nextString);
 			
 			// Place newly-constructed entity in playfield.
 			if (nextEntity instanceof Player) this.player = (Player)nextEntity;
@@ -532,6 +625,7 @@ public class Playfield {
 						else if (tp.getType() == Texture.STONES)
 							t = new Stone((x<<5) + 16, (y<<5) + 32, "UP", this);
 						else error("loadLevel", "tree/stone error");
+						entityTypes.add((t instanceof Tree) ? "TREE" : "STONE");
 
 						// Attach tree/stone to the collision grid.
 						gameGrid[x][y].attach(t);
@@ -1025,48 +1119,51 @@ public class Playfield {
 	// Make a grid selection given a convex polygon. The method records
 	//   essential information about which grid squares the convex polygon
 	//   overlaps (including the interior of the polygon), placing it
-	//   in the 'gridSelection' data members of this class.
-	public void makeGridSelection(Polygon p) {
+	//   in this thread's grid selection, which is returned.
+	public GridSelection makeGridSelection(Polygon p) {
+		
+		GridSelection sel = getGridSelection();
 		
 		// Get selection data for each line of polygon, keeping track
 		//   of the lowest and highest rows encountered.
-	    gridSelectionLowestRow[0] = gridHeight - 1;
-		gridSelectionHighestRow[0] = 0;
+	    sel.lowestRow[0] = gridHeight - 1;
+		sel.highestRow[0] = 0;
 		for (int i = 0; i < p.getNumVertices(); ++i) {
 			int x1 = p.getVertex(i).x;
 			int y1 = p.getVertex(i).y;
 			int x2 = p.getVertex((i + 1)%p.getNumVertices()).x;
 			int y2 = p.getVertex((i + 1)%p.getNumVertices()).y;
-			makeGridSelection(i + 1, x1, y1, x2, y2);
-			if (gridSelectionLowestRow[i + 1] < gridSelectionLowestRow[0])
-				gridSelectionLowestRow[0] = gridSelectionLowestRow[i + 1];
-			if (gridSelectionHighestRow[i + 1] > gridSelectionHighestRow[0])
-				gridSelectionHighestRow[0] = gridSelectionHighestRow[i + 1];
+			makeGridSelection(sel, i + 1, x1, y1, x2, y2);
+			if (sel.lowestRow[i + 1] < sel.lowestRow[0])
+				sel.lowestRow[0] = sel.lowestRow[i + 1];
+			if (sel.highestRow[i + 1] > sel.highestRow[0])
+				sel.highestRow[0] = sel.highestRow[i + 1];
 		}
 		
 		// Get the full selection spanned on each row.
-		for (int row = gridSelectionLowestRow[0];
-				row <= gridSelectionHighestRow[0];
+		for (int row = sel.lowestRow[0];
+				row <= sel.highestRow[0];
 				++row)
 		{
-			gridSelectionLeft[0][row] = gridWidth - 1;
-			gridSelectionRight[0][row] = 0;
+			sel.left[0][row] = gridWidth - 1;
+			sel.right[0][row] = 0;
 			for (int i = 0; i < p.getNumVertices(); ++i) {
-				if (    (gridSelectionLowestRow[i + 1] <= row)
-					 && (row <= gridSelectionHighestRow[i + 1]) )
+				if (    (sel.lowestRow[i + 1] <= row)
+					 && (row <= sel.highestRow[i + 1]) )
 				{
-					if (gridSelectionLeft[i + 1][row] < gridSelectionLeft[0][row])
-						gridSelectionLeft[0][row] = gridSelectionLeft[i + 1][row];
-					if (gridSelectionRight[i + 1][row] > gridSelectionRight[0][row])
-						gridSelectionRight[0][row] = gridSelectionRight[i + 1][row];
+					if (sel.left[i + 1][row] < sel.left[0][row])
+						sel.left[0][row] = sel.left[i + 1][row];
+					if (sel.right[i + 1][row] > sel.right[0][row])
+						sel.right[0][row] = sel.right[i + 1][row];
 				}
 			
 			} // end for (by polygon line)
 		} // end for (by row of selection grid)
+		return sel;
 	} // end method makeGridSelection (for polygons)
 	
 	// Make a grid selection using a line as the parameter.
-	public void makeGridSelection(int selNum, int x1, int y1, int x2, int y2) {
+	public void makeGridSelection(GridSelection sel, int selNum, int x1, int y1, int x2, int y2) {
 		
 		// Get simple row if y1 == y2.
 		if (y1 == y2) {
@@ -1074,15 +1171,15 @@ public class Playfield {
 			// Get the grid row that the horizontal segment
 			//   lies in.
 			int givenRow = clipHeight(y1 >> 5);
-			gridSelectionLowestRow[selNum] = givenRow;
-			gridSelectionHighestRow[selNum] = givenRow;
+			sel.lowestRow[selNum] = givenRow;
+			sel.highestRow[selNum] = givenRow;
 			
 			// Swap so that x1 <= x2.
 			if (x2 < x1) { int temp = x1; x1 = x2; x2 = temp; }
 			
 			// Get leftmost and rightmost grid squares occupied.
-			gridSelectionLeft[selNum][givenRow] = clipWidth(x1 >> 5);
-			gridSelectionRight[selNum][givenRow] = clipWidth(x2 >> 5);
+			sel.left[selNum][givenRow] = clipWidth(x1 >> 5);
+			sel.right[selNum][givenRow] = clipWidth(x2 >> 5);
 			
 			// All done.
 			return;
@@ -1121,9 +1218,9 @@ public class Playfield {
 		// Add the squares to the grid selection arrays.
 		//   Also initialize 'currentRow' for scanning loop.
 		int currentRow = clipHeight((y1%32 == 0) ? (y1>>5) - 1 : y1>>5);
-		gridSelectionHighestRow[selNum] = currentRow;
-		gridSelectionLeft[selNum][currentRow] = currentExtremities[0];
-		gridSelectionRight[selNum][currentRow] = currentExtremities[1];
+		sel.highestRow[selNum] = currentRow;
+		sel.left[selNum][currentRow] = currentExtremities[0];
+		sel.right[selNum][currentRow] = currentExtremities[1];
 		
 		// Put the sign back on xDelta.
 		xDelta *= fieldPointIncrement;
@@ -1156,19 +1253,19 @@ public class Playfield {
 			// Use the new value of 'x1' to collect the overlapped
 			//   squares.
 			currentExtremities[direction] = clipWidth(x1 >> 5);
-			gridSelectionLeft[selNum][currentRow] = currentExtremities[0];
-			gridSelectionRight[selNum][currentRow] = currentExtremities[1];
+			sel.left[selNum][currentRow] = currentExtremities[0];
+			sel.right[selNum][currentRow] = currentExtremities[1];
 			
 		} // end while
 		
 		// Get the correct overlapped squares for the final row
 		//   using (x2, y2).
 		currentExtremities[direction] = clipWidth(x2 >> 5);
-		gridSelectionLeft[selNum][lowestRow] = currentExtremities[0];
-		gridSelectionRight[selNum][lowestRow] = currentExtremities[1];
+		sel.left[selNum][lowestRow] = currentExtremities[0];
+		sel.right[selNum][lowestRow] = currentExtremities[1];
 		
 		// Save the lowest row scanned in the grid selection array.
-		gridSelectionLowestRow[selNum] = lowestRow;
+		sel.lowestRow[selNum] = lowestRow;
 		
 	} // end method makeGridSelection (for lines)
 	
@@ -1184,16 +1281,16 @@ public class Playfield {
 	        boolean test)
 	{
 	    // Get all the grid squares overlapped by the given polygon.
-        this.makeGridSelection(p);
+        GridSelection sel = this.makeGridSelection(p);
     
         // Get one reference for each entity/line/water portal.
         for (int type = 0; type < 3; ++type) {
-            for (int row =  this.gridSelectionLowestRow[0];
-                     row <= this.gridSelectionHighestRow[0];
+            for (int row =  sel.lowestRow[0];
+                     row <= sel.highestRow[0];
                      ++row)
             {
-                for (int col =  this.gridSelectionLeft[0][row];
-                         col <= this.gridSelectionRight[0][row];
+                for (int col =  sel.left[0][row];
+                         col <= sel.right[0][row];
                          ++col)
                 {
                     if (type == 0) {
@@ -29,6 +29,9 @@ public class Portal extends AStarNode {
 	private BSPLeaf frontLeaf;
 	private BSPLeaf backLeaf;
 	
+	// Told when the portal opens or closes (null for none).
+	private PortalListener listener = null;
+	
 	// Data member added to allow the clearing of unused portals from
 	//   the level.
 	public ArrayList<BSPNode> parentNodes;
@@ -110,12 +113,20 @@ public class Portal extends AStarNode {
 		midpoint.y = (segment.startingFieldpoint.y + segment.endingFieldpoint.y) / 2;
 	}
 
+	public void setListener(PortalListener l) {
+		listener = l;
+	}
+
 	public void open() {
+		boolean changed = !open;
 		open = true;
+		if (changed && listener != null) listener.portalChanged(this);
 	}
 
 	public void close() {
+		boolean changed = open;
 		open = false;
+		if (changed && listener != null) listener.portalChanged(this);
 	}
 	
 	// More functions added for A* search.
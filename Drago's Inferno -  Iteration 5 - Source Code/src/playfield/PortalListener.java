@@ -0,0 +1,20 @@
+/*
+ * PortalListener.java (v1.0)
+ * 10/18/2026
+ */
+package playfield;
+
+/**
+ * Told when a portal opens or closes (see Portal.setListener), e.g.
+ * by whatever draws portals, to redraw them.
+ *
+ * Portals may open on any of the threads running a tick, so the
+ * listener must be safe to call from any thread, and quick.
+ *
+ */
+public interface PortalListener
+{
+    // The given portal has opened or closed.
+    void portalChanged(Portal p);
+
+} // end interface PortalListener